@@ -0,0 +1,98 @@
+package FlightFinder.Backend.search;
+
+import FlightFinder.Backend.model.Flight;
+import FlightFinder.Backend.repository.FlightRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of flight filtering through the search index compared with a
+ * full scan applying the same predicates as the Specification path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class FlightSearchBenchmark {
+
+    private static final List<String> CITIES = List.of("Liberty City", "Vice City", "Los Santos", "San Fierro",
+            "Las Venturas");
+
+    @Param({ "1000", "100000" })
+    public int flights;
+
+    private List<Flight> catalog;
+    private FlightSearchIndex index;
+    private final LocalDate date = LocalDate.of(2025, 6, 15);
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        catalog = new ArrayList<>(flights);
+        for (long id = 1; id <= flights; id++) {
+            List<String> cities = new ArrayList<>(CITIES);
+            Collections.shuffle(cities, random);
+            Flight flight = new Flight();
+            flight.setId(id);
+            flight.setFlightNumber("AA" + id);
+            flight.setStartLocation(cities.get(0));
+            flight.setDestination(cities.get(1));
+            flight.setDepartureDate(LocalDate.of(2025, 1 + random.nextInt(12), 1 + random.nextInt(28)));
+            flight.setDepartureTime(LocalTime.of(random.nextInt(24), random.nextInt(60)));
+            flight.setPrice(random.nextDouble(100, 500));
+            catalog.add(flight);
+        }
+
+        // The index only needs findAll from the repository.
+        FlightRepository repository = (FlightRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { FlightRepository.class }, (proxy, method, args) -> {
+                    if (method.getName().equals("findAll") && method.getParameterCount() == 0) {
+                        return catalog;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        index = new FlightSearchIndex(repository, Duration.ofDays(1));
+        // Loads the catalog.
+        index.getVersion();
+    }
+
+    @Benchmark
+    public List<Flight> indexRoute() {
+        return index.search("los", "vice", null, null, null, null);
+    }
+
+    @Benchmark
+    public List<Flight> indexRouteDatePrice() {
+        return index.search("los", "vice", date, null, 150.0, 300.0);
+    }
+
+    @Benchmark
+    public List<Flight> scanRoute() {
+        return scan("los", "vice", null, null, null);
+    }
+
+    @Benchmark
+    public List<Flight> scanRouteDatePrice() {
+        return scan("los", "vice", date, 150.0, 300.0);
+    }
+
+    private List<Flight> scan(String startLocation, String destination, LocalDate departureDate, Double minPrice,
+            Double maxPrice) {
+        List<Flight> result = new ArrayList<>();
+        for (Flight flight : catalog) {
+            if (flight.getStartLocation().toLowerCase().contains(startLocation)
+                    && flight.getDestination().toLowerCase().contains(destination)
+                    && (departureDate == null || departureDate.equals(flight.getDepartureDate()))
+                    && (minPrice == null || flight.getPrice() >= minPrice)
+                    && (maxPrice == null || flight.getPrice() <= maxPrice)) {
+                result.add(flight);
+            }
+        }
+        return result;
+    }
+}
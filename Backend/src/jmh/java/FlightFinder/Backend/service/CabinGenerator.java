@@ -0,0 +1,114 @@
+package FlightFinder.Backend.service;
+
+import FlightFinder.Backend.model.AircraftType;
+import FlightFinder.Backend.model.CabinLayout;
+import FlightFinder.Backend.model.Seat;
+import FlightFinder.Backend.model.SeatFeature;
+
+import java.util.*;
+
+/**
+ * Generates seats for benchmark cabins, following the layout rules of
+ * {@link FlightServiceImpl#addFlight()} scaled up to bigger aircraft.
+ */
+public class CabinGenerator {
+
+    private CabinGenerator() {
+    }
+
+    /**
+     * Generates the seats of a cabin.
+     *
+     * A cabin given as an {@link AircraftType} name (e.g. "B777") has every seat
+     * of that type's layout, with the layout's features. Otherwise rows are
+     * numbered from 1 and have no aisles.
+     *
+     * @param cabin     Aircraft type, or cabin size as "seatsPerRow x rows", e.g.
+     *                  "6x12".
+     * @param occupancy Share of seats that are occupied, between 0 and 1.
+     * @param seed      Random seed, so every run benchmarks the same cabin.
+     * @return The generated seats.
+     */
+    public static List<Seat> generate(String cabin, double occupancy, long seed) {
+        CabinLayout layout = layout(cabin);
+        if (layout != null) {
+            return generate(layout, occupancy, seed);
+        }
+        String[] size = cabin.split("x");
+        int seatsPerRow = Integer.parseInt(size[0]);
+        int numRows = Integer.parseInt(size[1]);
+        Random random = new Random(seed);
+
+        List<Seat> seats = new ArrayList<>(seatsPerRow * numRows);
+        long id = 1;
+        for (int row = 0; row < numRows; row++) {
+            for (int number = 1; number <= seatsPerRow; number++) {
+                Seat seat = new Seat();
+                seat.setId(id++);
+                seat.setRow(String.valueOf(row + 1));
+                seat.setSeatNumber(number);
+                seat.setOccupied(random.nextDouble() < occupancy);
+
+                // Same feature rules as addFlight: window seats at both ends except on
+                // every third row, more legroom in the first third of the rows and the
+                // middle seats close to the exit.
+                Set<SeatFeature> features = new HashSet<>();
+                if ((number == 1 || number == seatsPerRow) && row % 3 != 2) {
+                    features.add(SeatFeature.WINDOW_SEAT);
+                }
+                if (row < numRows / 3) {
+                    features.add(SeatFeature.MORE_LEGROOM);
+                }
+                int middle = (seatsPerRow + 1) / 2;
+                if (number == middle || number == seatsPerRow + 1 - middle) {
+                    features.add(SeatFeature.CLOSE_TO_EXIT);
+                }
+                seat.setFeatures(features);
+                seats.add(seat);
+            }
+        }
+        return seats;
+    }
+
+    /**
+     * @return The layout of the cabin if it is given as an aircraft type, null
+     *         otherwise.
+     */
+    public static CabinLayout layout(String cabin) {
+        for (AircraftType type : AircraftType.values()) {
+            if (type.name().equals(cabin)) {
+                return type.getLayout();
+            }
+        }
+        return null;
+    }
+
+    private static List<Seat> generate(CabinLayout layout, double occupancy, long seed) {
+        Random random = new Random(seed);
+        List<Seat> seats = new ArrayList<>(layout.getRowCount() * layout.getColumnCount());
+        long id = 1;
+        for (int row = layout.getFirstRow(); row <= layout.getLastRow(); row++) {
+            for (int number = 1; number <= layout.getColumnCount(); number++) {
+                Seat seat = new Seat();
+                seat.setId(id++);
+                seat.setRow(String.valueOf(row));
+                seat.setSeatNumber(number);
+                seat.setOccupied(random.nextDouble() < occupancy);
+                seat.setFeatures(layout.featuresOf(row, number));
+                seats.add(seat);
+            }
+        }
+        return seats;
+    }
+
+    /**
+     * Parses a feature combination such as "WINDOW_SEAT+MORE_LEGROOM"; "NONE"
+     * stands for no desired features.
+     */
+    public static List<SeatFeature> parseFeatures(String features) {
+        if (features.equals("NONE")) {
+            return Collections.emptyList();
+        }
+        return Arrays.stream(features.split("\\+")).map(SeatFeature::valueOf).toList();
+    }
+}
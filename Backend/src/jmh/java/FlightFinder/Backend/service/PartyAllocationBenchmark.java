@@ -0,0 +1,51 @@
+package FlightFinder.Backend.service;
+
+import FlightFinder.Backend.dto.Party;
+import FlightFinder.Backend.model.Seat;
+import FlightFinder.Backend.service.seatFinder.SeatMap;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of a batch seat allocation: a travel agent seating {@code parties}
+ * parties of one to six passengers on the same flight.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PartyAllocationBenchmark {
+
+    @Param({ "6x12", "10x50" })
+    public String cabin;
+
+    @Param({ "0.0", "0.5" })
+    public double occupancy;
+
+    @Param({ "10", "100" })
+    public int parties;
+
+    private SeatMap seatMap;
+    private List<Party> batch;
+    private SeatServiceImpl seatService;
+
+    @Setup
+    public void setUp() {
+        seatMap = SeatMap.compile(CabinGenerator.generate(cabin, occupancy, 42));
+        Random random = new Random(42);
+        batch = new ArrayList<>();
+        for (int i = 0; i < parties; i++) {
+            batch.add(new Party(1 + random.nextInt(6), CabinGenerator.parseFeatures(
+                    random.nextBoolean() ? "WINDOW_SEAT" : "NONE")));
+        }
+        seatService = new SeatServiceImpl(null, null, null, 1, 1);
+    }
+
+    @Benchmark
+    public List<List<Seat>> allocateParties() {
+        return seatService.allocateParties(seatMap, batch);
+    }
+}
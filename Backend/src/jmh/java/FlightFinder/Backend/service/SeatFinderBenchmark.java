@@ -0,0 +1,103 @@
+package FlightFinder.Backend.service;
+
+import FlightFinder.Backend.model.Seat;
+import FlightFinder.Backend.model.SeatFeature;
+import FlightFinder.Backend.service.seatFinder.BitsetSeatFinder;
+import FlightFinder.Backend.service.seatFinder.ContiguousSeatFinder;
+import FlightFinder.Backend.service.seatFinder.MixedSeatFinder;
+import FlightFinder.Backend.service.seatFinder.SeatMap;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the seat finders for one recommendation request.
+ *
+ * By default a representative subset runs: a 300-seat cabin and the 600-seat
+ * 60-row, 3-4-3 B777 layout (searched with its aisles and cabin classes),
+ * half full and nearly full, for pairs, families and group bookings, with and
+ * without desired features. {@code -Pjmh.fullMatrix} runs every cabin from
+ * 6 x 12 up to a 500-seat widebody, every feature combination and group sizes
+ * from 1 to 50 instead, see build.gradle; that takes more than a day. Run
+ * with the gc profiler (the default in build.gradle) to get the allocation
+ * rate next to the throughput. The parallel mixed search runs on a pool of
+ * {@value #PARALLELISM} threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SeatFinderBenchmark {
+
+    private static final int TOP_K = 3;
+    private static final int PARALLELISM = 4;
+
+    @Param({ "10x30", "B777" })
+    public String cabin;
+
+    @Param({ "0.5", "0.95" })
+    public double occupancy;
+
+    @Param({ "2", "6", "20" })
+    public int groupSize;
+
+    @Param({ "NONE", "WINDOW_SEAT+MORE_LEGROOM" })
+    public String features;
+
+    private List<Seat> availableSeats;
+    private SeatMap seatMap;
+    private List<SeatFeature> desiredFeatures;
+    private SeatServiceImpl seatService;
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setUp() {
+        List<Seat> seats = CabinGenerator.generate(cabin, occupancy, 42);
+        availableSeats = seats.stream().filter(seat -> !seat.isOccupied()).toList();
+        seatMap = SeatMap.compile(seats, CabinGenerator.layout(cabin), 0);
+        desiredFeatures = CabinGenerator.parseFeatures(features);
+        seatService = new SeatServiceImpl(null, null, null, 1, 1);
+        pool = new ForkJoinPool(PARALLELISM);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Benchmark
+    public List<Seat> contiguousSeatFinder() {
+        return ContiguousSeatFinder.findBestContiguousSeatGroup(availableSeats, groupSize, desiredFeatures);
+    }
+
+    @Benchmark
+    public List<Seat> mixedSeatFinder() {
+        return MixedSeatFinder.findBestMixedSeatGroup(availableSeats, groupSize, desiredFeatures);
+    }
+
+    @Benchmark
+    public List<Seat> bitsetContiguousSeatFinder() {
+        return BitsetSeatFinder.findBestContiguousSeatGroup(seatMap, groupSize, desiredFeatures);
+    }
+
+    @Benchmark
+    public List<Seat> bitsetMixedSeatFinder() {
+        return BitsetSeatFinder.findBestMixedSeatGroup(seatMap, groupSize, desiredFeatures);
+    }
+
+    @Benchmark
+    public List<Seat> parallelMixedSeatFinder() {
+        return BitsetSeatFinder.findBestMixedSeatGroup(seatMap, groupSize, desiredFeatures, pool);
+    }
+
+    @Benchmark
+    public List<List<Seat>> bitsetTopMixedSeatGroups() {
+        return BitsetSeatFinder.findTopMixedSeatGroups(seatMap, groupSize, desiredFeatures, TOP_K);
+    }
+
+    @Benchmark
+    public List<Seat> findBestSeatGroup() {
+        return seatService.findBestSeatGroup(seatMap, groupSize, desiredFeatures);
+    }
+}
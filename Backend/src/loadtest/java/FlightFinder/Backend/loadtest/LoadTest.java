@@ -0,0 +1,478 @@
+package FlightFinder.Backend.loadtest;
+
+import FlightFinder.Backend.BackendApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Load test of the REST API, reporting throughput and latency percentiles per
+ * endpoint.
+ *
+ * By default the backend is started in-process once per execution mode
+ * (platform or virtual threads), seeded with the flight generator and then hit
+ * by {@code --connections} clients, each with its own connection, for
+ * {@code --duration} seconds. Every client picks its next request from the
+ * {@code --mix} of endpoints. The database is an in-memory H2 in PostgreSQL
+ * mode unless {@code SPRING_DATASOURCE_URL} points somewhere else; blocking on
+ * database round trips only shows up against a real PostgreSQL. With
+ * {@code --url} a backend that is already running is tested instead; seeding
+ * it needs {@code flightfinder.generator.enabled=true}, or {@code --flights=0}
+ * for a backend that already has flights. For an in-process backend the number of SQL statements it sent during the
+ * measurement is printed too.
+ *
+ * Results are written as JSON to {@code --out} (one file per run), and a
+ * previous result file given as {@code --baseline} is compared against.
+ *
+ * <pre>
+ * gradle loadTest -PloadTest.args="--connections=1000 --duration=30 --mix=seats:4,recommend:2,filter:1"
+ * gradle loadTest -PloadTest.args="--modes=virtual --baseline=build/loadtest/20250301-101500.json"
+ * </pre>
+ */
+public class LoadTest {
+
+    private static final ObjectMapper JSON = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private static final DateTimeFormatter FILE_NAME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")
+            .withZone(ZoneOffset.UTC);
+    private static final String[] CITIES = { "liberty", "vice", "santos", "fierro", "venturas" };
+
+    /**
+     * Requests a client can send, with the name used in {@code --mix} and in
+     * the results.
+     */
+    enum Endpoint {
+        FILTER("filter") {
+            @Override
+            String path(long flightId, ThreadLocalRandom random) {
+                return "/flight/filter?startLocation=" + CITIES[random.nextInt(CITIES.length)]
+                        + "&maxPrice=" + (150 + random.nextInt(350));
+            }
+        },
+        PAGE("page") {
+            @Override
+            String path(long flightId, ThreadLocalRandom random) {
+                return "/flight/filter/page?destination=" + CITIES[random.nextInt(CITIES.length)]
+                        + "&sort=PRICE&limit=20";
+            }
+        },
+        SEATS("seats") {
+            @Override
+            String path(long flightId, ThreadLocalRandom random) {
+                return "/flight/" + flightId + "/seats";
+            }
+        },
+        SEAT_MAP("seat-map") {
+            @Override
+            String path(long flightId, ThreadLocalRandom random) {
+                return "/flight/" + flightId + "/seat-map";
+            }
+        },
+        RECOMMEND("recommend") {
+            @Override
+            String path(long flightId, ThreadLocalRandom random) {
+                return "/seat-recommendations/" + flightId + "/?numSeatsRequired=" + (1 + random.nextInt(4))
+                        + (random.nextBoolean() ? "&desiredFeatures=WINDOW_SEAT" : "");
+            }
+        };
+
+        private final String key;
+
+        Endpoint(String key) {
+            this.key = key;
+        }
+
+        abstract String path(long flightId, ThreadLocalRandom random);
+
+        static Endpoint of(String key) {
+            for (Endpoint endpoint : values()) {
+                if (endpoint.key.equals(key)) {
+                    return endpoint;
+                }
+            }
+            throw new IllegalArgumentException("Unknown endpoint: " + key);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        Instant startedAt = Instant.now();
+        List<Result> results = new ArrayList<>();
+        if (options.url != null) {
+            results.addAll(run("external", options.url, options, null));
+        } else {
+            for (String mode : options.modes) {
+                try (ConfigurableApplicationContext context = start(mode, options)) {
+                    String url = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+                    Statistics statistics = context.getBean(EntityManagerFactory.class)
+                            .unwrap(SessionFactory.class).getStatistics();
+                    results.addAll(run(mode, url, options, statistics));
+                }
+            }
+        }
+
+        System.out.printf("%n%d connections, %d s, mix %s%n", options.connections, options.duration.toSeconds(),
+                options.mixDescription());
+        System.out.printf("%-10s %-10s %10s %8s %10s %8s %8s %8s %8s %8s%n",
+                "mode", "endpoint", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Result result : results) {
+            System.out.printf("%-10s %-10s %10d %8d %10.0f %8.1f %8.1f %8.1f %8.1f %8.1f%n", result.mode,
+                    result.endpoint, result.requests, result.errors, result.throughput, result.p50, result.p95,
+                    result.p99, result.p999, result.max);
+        }
+
+        Files.createDirectories(options.out);
+        Path file = options.out.resolve(FILE_NAME.format(startedAt) + ".json");
+        JSON.writeValue(file.toFile(), new Run(startedAt.toString(), options.connections,
+                options.duration.toSeconds(), options.mixDescription(), results));
+        System.out.printf("%nResults written to %s%n", file);
+
+        if (options.baseline != null) {
+            compare(JSON.readValue(options.baseline.toFile(), Run.class), results);
+        }
+    }
+
+    private static ConfigurableApplicationContext start(String mode, Options options) {
+        List<String> profiles = new ArrayList<>();
+        if (System.getenv("SPRING_DATASOURCE_URL") == null) {
+            profiles.add("loadtest-h2");
+        }
+        if (mode.equals("virtual")) {
+            profiles.add("virtual-threads");
+        } else if (!mode.equals("platform")) {
+            throw new IllegalArgumentException("Unknown mode: " + mode);
+        }
+        // Same pool size in both modes, so only the threading model differs.
+        return new SpringApplicationBuilder(BackendApplication.class)
+                .profiles(profiles.toArray(new String[0]))
+                .run("--server.port=0",
+                        "--flightfinder.generator.enabled=true",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.datasource.hikari.maximum-pool-size=" + options.poolSize);
+    }
+
+    private static List<Result> run(String mode, String url, Options options, Statistics statistics)
+            throws Exception {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+                HttpClient client = HttpClient.newBuilder()
+                        .version(HttpClient.Version.HTTP_1_1)
+                        .executor(executor)
+                        .connectTimeout(Duration.ofSeconds(10))
+                        .build()) {
+            if (options.flights > 0) {
+                send(client, HttpRequest.newBuilder(URI.create(url + "/flight/generate?count=" + options.flights
+                        + "&rows=" + options.rows + "&seatsPerRow=" + options.seatsPerRow + "&seed=1"))
+                        .POST(HttpRequest.BodyPublishers.noBody()).build());
+            }
+            List<Long> flightIds = new ArrayList<>();
+            for (JsonNode flight : JSON.readTree(send(client, get(url + "/flight/filter/page?limit=500")))
+                    .get("flights")) {
+                flightIds.add(flight.get("id").asLong());
+            }
+            if (flightIds.isEmpty()) {
+                throw new IllegalStateException("No flights to test against; use --flights to generate some");
+            }
+
+            System.out.printf("%s: warming up for %d s%n", mode, options.warmup.toSeconds());
+            drive(mode, client, url, flightIds, options, options.warmup);
+            System.out.printf("%s: measuring for %d s%n", mode, options.duration.toSeconds());
+            if (statistics != null) {
+                statistics.clear();
+            }
+            List<Result> results = drive(mode, client, url, flightIds, options, options.duration);
+            if (statistics != null) {
+                System.out.printf("%s: %d SQL statements (%.0f/s)%n", mode, statistics.getPrepareStatementCount(),
+                        statistics.getPrepareStatementCount() / (double) options.duration.toSeconds());
+            }
+            return results;
+        }
+    }
+
+    /**
+     * Runs one client per connection in a closed loop until the time is up.
+     *
+     * @return One result per endpoint of the mix, followed by the total.
+     */
+    private static List<Result> drive(String mode, HttpClient client, String url, List<Long> flightIds,
+            Options options, Duration duration) throws InterruptedException {
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+        Client[] clients = new Client[options.connections];
+        Thread[] threads = new Thread[options.connections];
+        for (int i = 0; i < options.connections; i++) {
+            clients[i] = new Client(client, url, flightIds, options.mix, deadline);
+            threads[i] = Thread.ofVirtual().start(clients[i]);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        List<Result> results = new ArrayList<>();
+        Latencies total = new Latencies();
+        for (Endpoint endpoint : Endpoint.values()) {
+            if (!options.mix.containsKey(endpoint)) {
+                continue;
+            }
+            Latencies merged = new Latencies();
+            for (Client c : clients) {
+                merged.addAll(c.latencies.get(endpoint));
+            }
+            total.addAll(merged);
+            results.add(Result.of(mode, endpoint.key, merged, seconds));
+        }
+        results.add(Result.of(mode, "total", total, seconds));
+        return results;
+    }
+
+    /**
+     * Prints the change in throughput and p99 against an earlier run.
+     */
+    private static void compare(Run baseline, List<Result> results) {
+        Map<String, Result> previous = new HashMap<>();
+        for (Result result : baseline.results()) {
+            previous.put(result.mode + "/" + result.endpoint, result);
+        }
+        System.out.printf("%nCompared to %s:%n", baseline.startedAt());
+        System.out.printf("%-10s %-10s %10s %10s %8s %10s %10s %8s%n",
+                "mode", "endpoint", "req/s", "before", "change", "p99 ms", "before", "change");
+        for (Result result : results) {
+            Result before = previous.get(result.mode + "/" + result.endpoint);
+            if (before != null) {
+                System.out.printf("%-10s %-10s %10.0f %10.0f %+7.1f%% %10.1f %10.1f %+7.1f%%%n", result.mode,
+                        result.endpoint, result.throughput, before.throughput,
+                        change(before.throughput, result.throughput), result.p99, before.p99,
+                        change(before.p99, result.p99));
+            }
+        }
+    }
+
+    private static double change(double before, double after) {
+        return before == 0 ? Double.NaN : (after - before) / before * 100;
+    }
+
+    private static HttpRequest get(String uri) {
+        return HttpRequest.newBuilder(URI.create(uri)).timeout(Duration.ofSeconds(30)).GET().build();
+    }
+
+    private static String send(HttpClient client, HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException(request.uri() + " returned " + response.statusCode());
+        }
+        return response.body();
+    }
+
+    /**
+     * One simulated user, sending requests drawn from the weighted mix of
+     * endpoints.
+     */
+    private static final class Client implements Runnable {
+        private final HttpClient client;
+        private final String url;
+        private final List<Long> flightIds;
+        private final Endpoint[] endpoints;
+        private final int[] cumulativeWeights;
+        private final long deadline;
+        private final Map<Endpoint, Latencies> latencies = new EnumMap<>(Endpoint.class);
+
+        Client(HttpClient client, String url, List<Long> flightIds, Map<Endpoint, Integer> mix, long deadline) {
+            this.client = client;
+            this.url = url;
+            this.flightIds = flightIds;
+            this.deadline = deadline;
+            this.endpoints = mix.keySet().toArray(new Endpoint[0]);
+            this.cumulativeWeights = new int[endpoints.length];
+            int sum = 0;
+            for (int i = 0; i < endpoints.length; i++) {
+                sum += mix.get(endpoints[i]);
+                cumulativeWeights[i] = sum;
+                latencies.put(endpoints[i], new Latencies());
+            }
+        }
+
+        @Override
+        public void run() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int totalWeight = cumulativeWeights[cumulativeWeights.length - 1];
+            while (System.nanoTime() < deadline) {
+                int pick = random.nextInt(totalWeight);
+                int index = 0;
+                while (cumulativeWeights[index] <= pick) {
+                    index++;
+                }
+                Endpoint endpoint = endpoints[index];
+                long flightId = flightIds.get(random.nextInt(flightIds.size()));
+                Latencies stats = latencies.get(endpoint);
+
+                long start = System.nanoTime();
+                try {
+                    HttpResponse<Void> response = client.send(get(url + endpoint.path(flightId, random)),
+                            HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() / 100 != 2) {
+                        stats.errors++;
+                    }
+                } catch (IOException e) {
+                    stats.errors++;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                stats.add(System.nanoTime() - start);
+            }
+        }
+    }
+
+    /**
+     * Growable array of latencies in nanoseconds, plus an error count.
+     */
+    private static final class Latencies {
+        private long[] values = new long[256];
+        private int count;
+        private long errors;
+
+        void add(long nanos) {
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count * 2);
+            }
+            values[count++] = nanos;
+        }
+
+        void addAll(Latencies other) {
+            if (count + other.count > values.length) {
+                values = Arrays.copyOf(values, Math.max(values.length * 2, count + other.count));
+            }
+            System.arraycopy(other.values, 0, values, count, other.count);
+            count += other.count;
+            errors += other.errors;
+        }
+
+        long[] sorted() {
+            long[] sorted = Arrays.copyOf(values, count);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+
+    /**
+     * Throughput and latencies (in milliseconds) of one endpoint in one mode.
+     */
+    record Result(String mode, String endpoint, long requests, long errors, double throughput, double p50,
+            double p95, double p99, double p999, double max) {
+
+        static Result of(String mode, String endpoint, Latencies latencies, double seconds) {
+            long[] sorted = latencies.sorted();
+            return new Result(mode, endpoint, sorted.length, latencies.errors, sorted.length / seconds,
+                    percentileMillis(sorted, 0.5), percentileMillis(sorted, 0.95), percentileMillis(sorted, 0.99),
+                    percentileMillis(sorted, 0.999), percentileMillis(sorted, 1));
+        }
+
+        private static double percentileMillis(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return Double.NaN;
+            }
+            int index = (int) Math.ceil(percentile * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1e6;
+        }
+    }
+
+    /**
+     * Contents of a result file.
+     */
+    record Run(String startedAt, int connections, long durationSeconds, String mix, List<Result> results) {
+    }
+
+    private static final class Options {
+        private int connections = 1000;
+        private Duration duration = Duration.ofSeconds(30);
+        private Duration warmup = Duration.ofSeconds(10);
+        private int flights = 500;
+        private int rows = 12;
+        private int seatsPerRow = 6;
+        private int poolSize = 32;
+        private List<String> modes = List.of("platform", "virtual");
+        private Map<Endpoint, Integer> mix = defaultMix();
+        private String url;
+        private Path out = Path.of("build", "loadtest");
+        private Path baseline;
+
+        private static Map<Endpoint, Integer> defaultMix() {
+            Map<Endpoint, Integer> mix = new EnumMap<>(Endpoint.class);
+            mix.put(Endpoint.FILTER, 1);
+            mix.put(Endpoint.PAGE, 1);
+            mix.put(Endpoint.SEATS, 1);
+            mix.put(Endpoint.RECOMMEND, 1);
+            return mix;
+        }
+
+        /**
+         * Parses a mix like {@code seats:4,recommend:2,filter:1}.
+         */
+        private static Map<Endpoint, Integer> parseMix(String value) {
+            Map<Endpoint, Integer> mix = new EnumMap<>(Endpoint.class);
+            for (String part : value.split(",")) {
+                String[] pair = part.split(":", 2);
+                int weight = pair.length == 2 ? Integer.parseInt(pair[1]) : 1;
+                if (weight > 0) {
+                    mix.put(Endpoint.of(pair[0]), weight);
+                }
+            }
+            if (mix.isEmpty()) {
+                throw new IllegalArgumentException("The mix needs at least one endpoint");
+            }
+            return mix;
+        }
+
+        String mixDescription() {
+            StringJoiner description = new StringJoiner(",");
+            mix.forEach((endpoint, weight) -> description.add(endpoint.key + ":" + weight));
+            return description.toString();
+        }
+
+        static Options parse(String[] args) {
+            Options options = new Options();
+            for (String arg : args) {
+                String[] pair = arg.replaceFirst("^--", "").split("=", 2);
+                if (pair.length != 2) {
+                    throw new IllegalArgumentException("Expected --name=value but got " + arg);
+                }
+                switch (pair[0]) {
+                    case "connections" -> options.connections = Integer.parseInt(pair[1]);
+                    case "duration" -> options.duration = Duration.ofSeconds(Long.parseLong(pair[1]));
+                    case "warmup" -> options.warmup = Duration.ofSeconds(Long.parseLong(pair[1]));
+                    case "flights" -> options.flights = Integer.parseInt(pair[1]);
+                    case "rows" -> options.rows = Integer.parseInt(pair[1]);
+                    case "seats-per-row" -> options.seatsPerRow = Integer.parseInt(pair[1]);
+                    case "pool-size" -> options.poolSize = Integer.parseInt(pair[1]);
+                    case "modes" -> options.modes = List.of(pair[1].split(","));
+                    case "mix" -> options.mix = parseMix(pair[1]);
+                    case "url" -> options.url = pair[1];
+                    case "out" -> options.out = Path.of(pair[1]);
+                    case "baseline" -> options.baseline = Path.of(pair[1]);
+                    default -> throw new IllegalArgumentException("Unknown option --" + pair[0]);
+                }
+            }
+            return options;
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package FlightFinder.Backend.loadtest;
+
+import FlightFinder.Backend.BackendApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Startup benchmark of the production jar: the time from starting the JVM to
+ * the first successful {@code /flight/filter} response.
+ *
+ * The jar extracted by {@code gradle cdsArchive} is started {@code --runs}
+ * times per mode, after one untimed run, with the prod profile:
+ * <ul>
+ * <li>{@code jit}: plain start, beans are found and conditions evaluated at
+ * runtime;</li>
+ * <li>{@code aot}: with the AOT-generated bean definitions;</li>
+ * <li>{@code aot-cds}: AOT plus the CDS archive next to the jar, as in the
+ * Docker image.</li>
+ * </ul>
+ * The database is an in-memory H2 unless {@code SPRING_DATASOURCE_URL} points
+ * to a PostgreSQL; only then do Flyway and schema validation run as in
+ * production. The output of every started backend goes to
+ * {@code <out>/<mode>.log}.
+ *
+ * Results are written as JSON to {@code --out} (one file per run). With
+ * {@code --baseline} the medians are compared against an earlier result file,
+ * and the benchmark fails if a mode got slower by more than
+ * {@code --max-regression} percent.
+ *
+ * <pre>
+ * gradle startupBenchmark -PstartupBenchmark.args="--runs=10"
+ * gradle startupBenchmark -PstartupBenchmark.args="--baseline=build/startup/20250301-101500.json --max-regression=15"
+ * </pre>
+ */
+public class StartupBenchmark {
+
+    private static final ObjectMapper JSON = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private static final DateTimeFormatter FILE_NAME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")
+            .withZone(ZoneOffset.UTC);
+    private static final Duration TIMEOUT = Duration.ofMinutes(2);
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        if (!Files.exists(options.app)) {
+            throw new IllegalArgumentException(options.app + " does not exist; run gradle cdsArchive first");
+        }
+        Files.createDirectories(options.out);
+        Instant startedAt = Instant.now();
+
+        List<Result> results = new ArrayList<>();
+        try (HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(1))
+                .build()) {
+            for (String mode : options.modes) {
+                List<String> command = command(mode, options);
+                Path directory = options.app.toAbsolutePath().getParent();
+                Path log = options.out.resolve(mode + ".log");
+                System.out.printf("%s: untimed first start%n", mode);
+                start(client, command, directory, log);
+                long[] millis = new long[options.runs];
+                for (int run = 0; run < options.runs; run++) {
+                    millis[run] = start(client, command, directory, log);
+                    System.out.printf("%s: run %d: %d ms%n", mode, run + 1, millis[run]);
+                }
+                results.add(Result.of(mode, millis));
+            }
+        }
+
+        System.out.printf("%nTime to first /flight/filter response, %d runs%n", options.runs);
+        System.out.printf("%-10s %10s %10s %10s%n", "mode", "min ms", "median ms", "max ms");
+        for (Result result : results) {
+            System.out.printf("%-10s %10d %10d %10d%n", result.mode, result.min, result.median, result.max);
+        }
+
+        Path file = options.out.resolve(FILE_NAME.format(startedAt) + ".json");
+        JSON.writeValue(file.toFile(), new Run(startedAt.toString(), options.runs,
+                System.getenv("SPRING_DATASOURCE_URL") == null ? "h2" : "external", results));
+        System.out.printf("%nResults written to %s%n", file);
+
+        if (options.baseline != null
+                && !compare(JSON.readValue(options.baseline.toFile(), Run.class), results, options.maxRegression)) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * @return The command line that starts the backend in a mode, run from the
+     *         directory of the jar.
+     */
+    private static List<String> command(String mode, Options options)
+            throws ClassNotFoundException, URISyntaxException {
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        switch (mode) {
+            case "jit" -> {
+            }
+            case "aot" -> command.add("-Dspring.aot.enabled=true");
+            case "aot-cds" -> {
+                command.add("-Dspring.aot.enabled=true");
+                command.add("-XX:SharedArchiveFile=app.jsa");
+            }
+            default -> throw new IllegalArgumentException("Unknown mode: " + mode);
+        }
+
+        // The CDS archive was created with app.jar as class path, which has to stay its prefix.
+        String classPath = options.app.getFileName().toString();
+        List<String> arguments = new ArrayList<>(List.of("--spring.profiles.active=prod"));
+        if (System.getenv("SPRING_DATASOURCE_URL") == null) {
+            // H2 is not part of the jar; take it from the load test class path.
+            classPath += File.pathSeparator + Path.of(Class.forName("org.h2.Driver").getProtectionDomain()
+                    .getCodeSource().getLocation().toURI());
+            arguments.addAll(List.of(
+                    "--spring.datasource.url=jdbc:h2:mem:startup;MODE=PostgreSQL;NON_KEYWORDS=ROW;DB_CLOSE_DELAY=-1",
+                    "--spring.datasource.username=sa",
+                    "--spring.datasource.password=",
+                    "--spring.datasource.driver-class-name=org.h2.Driver",
+                    // The migrations are written for PostgreSQL. With AOT the Flyway bean cannot be switched
+                    // off at runtime, so it gets no migrations and Hibernate creates the schema instead.
+                    "--spring.flyway.locations=classpath:none",
+                    "--spring.jpa.hibernate.ddl-auto=create-drop",
+                    "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"));
+        }
+        command.addAll(List.of("-cp", classPath, BackendApplication.class.getName()));
+        command.addAll(arguments);
+        return command;
+    }
+
+    /**
+     * Starts the backend in the directory of the jar on a free port and polls
+     * {@code /flight/filter} until it answers.
+     *
+     * @return The milliseconds from starting the process to the first
+     *         successful response.
+     */
+    private static long start(HttpClient client, List<String> command, Path directory, Path log)
+            throws IOException, InterruptedException {
+        int port = freePort();
+        List<String> portCommand = new ArrayList<>(command);
+        portCommand.add("--server.port=" + port);
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/flight/filter"))
+                .timeout(Duration.ofSeconds(10)).GET().build();
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(portCommand)
+                .directory(directory.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.appendTo(log.toFile()))
+                .start();
+        try {
+            while (true) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("The backend exited with " + process.exitValue() + ", see " + log);
+                }
+                if (System.nanoTime() - start > TIMEOUT.toNanos()) {
+                    throw new IllegalStateException("The backend did not answer within " + TIMEOUT + ", see " + log);
+                }
+                try {
+                    if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    }
+                } catch (IOException e) {
+                    // Not listening yet.
+                }
+                Thread.sleep(5);
+            }
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    /**
+     * Prints the change of the medians against an earlier run.
+     *
+     * @return Whether no mode got slower than allowed.
+     */
+    private static boolean compare(Run baseline, List<Result> results, double maxRegression) {
+        Map<String, Result> previous = new HashMap<>();
+        for (Result result : baseline.results()) {
+            previous.put(result.mode, result);
+        }
+        boolean passed = true;
+        System.out.printf("%nCompared to %s:%n", baseline.startedAt());
+        System.out.printf("%-10s %10s %10s %8s%n", "mode", "median ms", "before", "change");
+        for (Result result : results) {
+            Result before = previous.get(result.mode);
+            if (before != null) {
+                double change = (result.median - before.median) * 100.0 / before.median;
+                boolean regressed = change > maxRegression;
+                passed &= !regressed;
+                System.out.printf("%-10s %10d %10d %+7.1f%%%s%n", result.mode, result.median, before.median, change,
+                        regressed ? "  slower than allowed (" + maxRegression + "%)" : "");
+            }
+        }
+        return passed;
+    }
+
+    /**
+     * Startup times (in milliseconds) of one mode.
+     */
+    record Result(String mode, long min, long median, long max, long[] runs) {
+
+        static Result of(String mode, long[] millis) {
+            long[] sorted = millis.clone();
+            Arrays.sort(sorted);
+            return new Result(mode, sorted[0], sorted[sorted.length / 2], sorted[sorted.length - 1], millis);
+        }
+    }
+
+    /**
+     * Contents of a result file.
+     */
+    record Run(String startedAt, int runs, String database, List<Result> results) {
+    }
+
+    private static final class Options {
+        private Path app = Path.of("build", "application", "app.jar");
+        private int runs = 5;
+        private List<String> modes = List.of("jit", "aot", "aot-cds");
+        private Path out = Path.of("build", "startup");
+        private Path baseline;
+        private double maxRegression = 20;
+
+        static Options parse(String[] args) {
+            Options options = new Options();
+            for (String arg : args) {
+                String[] pair = arg.replaceFirst("^--", "").split("=", 2);
+                if (pair.length != 2) {
+                    throw new IllegalArgumentException("Expected --name=value but got " + arg);
+                }
+                switch (pair[0]) {
+                    case "app" -> options.app = Path.of(pair[1]);
+                    case "runs" -> options.runs = Integer.parseInt(pair[1]);
+                    case "modes" -> options.modes = List.of(pair[1].split(","));
+                    case "out" -> options.out = Path.of(pair[1]);
+                    case "baseline" -> options.baseline = Path.of(pair[1]);
+                    case "max-regression" -> options.maxRegression = Double.parseDouble(pair[1]);
+                    default -> throw new IllegalArgumentException("Unknown option --" + pair[0]);
+                }
+            }
+            if (options.runs < 1) {
+                throw new IllegalArgumentException("--runs must be at least 1");
+            }
+            options.out = options.out.toAbsolutePath();
+            return options;
+        }
+    }
+}
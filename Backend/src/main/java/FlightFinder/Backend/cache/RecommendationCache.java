@@ -0,0 +1,67 @@
+package FlightFinder.Backend.cache;
+
+import FlightFinder.Backend.model.Seat;
+import FlightFinder.Backend.model.SeatFeature;
+import FlightFinder.Backend.service.seatFinder.SeatMap;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Cache of seat recommendation results.
+ *
+ * Results are keyed by flight, seat map version, group size and the set of
+ * desired features. Every occupancy change gives the flight's seat map a new
+ * version, so a result is never served for a different occupancy state; the
+ * entries of old versions are simply never hit again and age out through the
+ * size and time limits. Hits and misses are exported as the
+ * {@code cache.gets} meters of the {@code seat-recommendations} cache.
+ */
+@Component
+public class RecommendationCache {
+
+    private final Cache<Key, List<Seat>> cache;
+
+    public RecommendationCache(MeterRegistry meterRegistry,
+            @Value("${flightfinder.recommendation-cache.maximum-size:10000}") long maximumSize,
+            @Value("${flightfinder.recommendation-cache.ttl:PT1M}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "seat-recommendations");
+    }
+
+    /**
+     * Returns the cached recommendation for the request, computing and caching
+     * it on a miss.
+     *
+     * @param flightId         The ID of the flight.
+     * @param seatMap          The seat map the recommendation is computed on.
+     * @param numSeatsRequired The number of seats required.
+     * @param desiredFeatures  The desired seat features; order and duplicates
+     *                         do not matter.
+     * @param finder           Computes the recommendation on a miss.
+     * @return The recommended seats (unmodifiable).
+     */
+    public List<Seat> get(Long flightId, SeatMap seatMap, int numSeatsRequired, List<SeatFeature> desiredFeatures,
+            Supplier<List<Seat>> finder) {
+        Key key = new Key(flightId, seatMap.getVersion(), numSeatsRequired, SeatMap.featureBits(desiredFeatures));
+        return cache.get(key, k -> List.copyOf(finder.get()));
+    }
+
+    /**
+     * @param featureBits The desired features as a bit set, see
+     *                    {@link SeatMap#featureBits}.
+     */
+    private record Key(Long flightId, long version, int numSeatsRequired, int featureBits) {
+    }
+}
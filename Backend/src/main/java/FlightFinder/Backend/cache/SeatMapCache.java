@@ -0,0 +1,418 @@
+package FlightFinder.Backend.cache;
+
+import FlightFinder.Backend.model.AircraftType;
+import FlightFinder.Backend.model.Flight;
+import FlightFinder.Backend.model.Seat;
+import FlightFinder.Backend.repository.FlightRepository;
+import FlightFinder.Backend.service.seatFinder.SeatMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+/**
+ * In-memory cache of compiled seat maps, one per flight.
+ *
+ * A flight's seats and features are loaded from the database once, on the
+ * first request, and kept until the flight is evicted. Every seat map carries a
+ * version number drawn from a cache-wide counter, so a new occupancy state
+ * (or a reload after eviction) never reuses a version. The cache holds at most
+ * {@code maximumSize} flights and evicts the least recently used one when it
+ * grows past that.
+ *
+ * An entry is removed only after its seat map was swapped for {@link #RETIRED}
+ * with the same compare-and-set that every change goes through. A hold either
+ * lands before that swap, which then fails and keeps the flight cached, or it
+ * sees the marker and retries on a freshly loaded entry.
+ */
+@Component
+public class SeatMapCache {
+
+    /**
+     * Marks an entry that is being removed; readers and writers that find it
+     * start over on a new entry.
+     */
+    private static final SeatMap RETIRED = SeatMap.compile(List.of(), null, 0);
+
+    private final FlightRepository flightRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int maximumSize;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicLong versions = new AtomicLong();
+    private final AtomicLong accessClock = new AtomicLong();
+
+    public SeatMapCache(FlightRepository flightRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${flightfinder.seat-cache.maximum-size:1000}") int maximumSize) {
+        this.flightRepository = flightRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.maximumSize = maximumSize;
+    }
+
+    /**
+     * Returns the seat map of a flight, loading it from the database if it is
+     * not cached yet. Concurrent callers for the same flight share one load.
+     *
+     * @param flightId The ID of the flight.
+     * @return The current seat map, or empty if the flight does not exist.
+     */
+    public Optional<SeatMap> get(Long flightId) {
+        while (true) {
+            Entry entry = loadedEntry(flightId);
+            if (entry == null) {
+                return Optional.empty();
+            }
+            SeatMap seatMap = entry.current.get();
+            if (seatMap != RETIRED) {
+                return Optional.ofNullable(seatMap);
+            }
+            entries.remove(flightId, entry);
+        }
+    }
+
+    /**
+     * Returns the seat maps of several flights, loading all flights that are not
+     * cached yet with one query.
+     *
+     * @param flightIds The IDs of the flights.
+     * @return The current seat maps by flight ID; flights that do not exist are
+     *         left out.
+     */
+    public Map<Long, SeatMap> getAll(Collection<Long> flightIds) {
+        Map<Long, Entry> requested = new HashMap<>();
+        Map<Long, Entry> toLoad = new HashMap<>();
+        for (Long flightId : flightIds) {
+            Entry entry = entries.get(flightId);
+            if (entry == null) {
+                Entry created = new Entry(flightId);
+                created.lastAccess = accessClock.incrementAndGet();
+                entry = entries.putIfAbsent(flightId, created);
+                if (entry == null) {
+                    entry = created;
+                    toLoad.put(flightId, created);
+                }
+            }
+            entry.lastAccess = accessClock.incrementAndGet();
+            requested.put(flightId, entry);
+        }
+        if (!toLoad.isEmpty()) {
+            loadAll(toLoad);
+        }
+
+        Map<Long, SeatMap> seatMaps = new HashMap<>();
+        requested.forEach((flightId, entry) -> {
+            if (entry.loaded.join() != null) {
+                SeatMap seatMap = entry.current.get();
+                if (seatMap == RETIRED) {
+                    get(flightId).ifPresent(reloaded -> seatMaps.put(flightId, reloaded));
+                } else if (seatMap != null) {
+                    seatMaps.put(flightId, seatMap);
+                }
+            }
+        });
+        return seatMaps;
+    }
+
+    /**
+     * Returns the seat map of a flight only if it is already cached.
+     *
+     * @param flightId The ID of the flight.
+     * @return The current seat map, or empty if the flight is not cached.
+     */
+    public Optional<SeatMap> getIfPresent(Long flightId) {
+        Entry entry = entries.get(flightId);
+        if (entry == null || !entry.loaded.isDone() || entry.loaded.isCompletedExceptionally()) {
+            return Optional.empty();
+        }
+        SeatMap seatMap = entry.current.get();
+        return seatMap == RETIRED ? Optional.empty() : Optional.ofNullable(seatMap);
+    }
+
+    /**
+     * Applies an occupancy change to a cached flight. If the flight is not
+     * cached, nothing happens and the next read loads the new state from the
+     * database.
+     *
+     * @param flightId The ID of the flight.
+     * @param seatIds  IDs of the seats that changed.
+     * @param occupied The new occupancy state of the seats.
+     */
+    public void updateOccupancy(Long flightId, Collection<Long> seatIds, boolean occupied) {
+        Entry entry = entries.get(flightId);
+        if (entry == null) {
+            return;
+        }
+        if (!entry.loaded.isDone() && retire(entry, null)) {
+            // A load may have read the old state; drop it instead of patching it.
+            return;
+        }
+        update(entry, seatMap -> seatMap.withOccupancy(seatIds, occupied, versions.incrementAndGet()));
+    }
+
+    /**
+     * Atomically holds a group of seats: either all of them were free and are
+     * now held, or nothing changes. Flights with held seats are never evicted.
+     *
+     * @param flightId The ID of the flight.
+     * @param seatIds  IDs of the seats to hold.
+     * @return The seat map with the seats held, or empty if the flight does not
+     *         exist or any of the seats is not free.
+     */
+    public Optional<SeatMap> hold(Long flightId, Collection<Long> seatIds) {
+        while (true) {
+            Entry entry = loadedEntry(flightId);
+            if (entry == null) {
+                return Optional.empty();
+            }
+            SeatMap held = update(entry, seatMap -> seatMap.hold(seatIds, versions.incrementAndGet()));
+            if (held != RETIRED) {
+                return Optional.ofNullable(held);
+            }
+            // The entry was evicted before we claimed the seats; retry on a fresh one.
+            entries.remove(flightId, entry);
+        }
+    }
+
+    /**
+     * Ends a hold created by {@link #hold}, either occupying the seats (the hold
+     * was confirmed) or freeing them again.
+     *
+     * @param flightId The ID of the flight.
+     * @param seatIds  IDs of the held seats.
+     * @param occupied True to occupy the seats, false to free them.
+     */
+    public void endHold(Long flightId, Collection<Long> seatIds, boolean occupied) {
+        Entry entry = entries.get(flightId);
+        if (entry != null && entry.loaded.isDone()) {
+            update(entry, seatMap -> seatMap.endHold(seatIds, occupied, versions.incrementAndGet()));
+        }
+    }
+
+    /**
+     * Registers a listener that is told about every new seat map.
+     *
+     * @param listener The listener to add.
+     */
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * @return The number of flights currently cached.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the loaded cache entry of a flight, loading it if necessary, or
+     * null if the flight does not exist. Concurrent callers share one load.
+     */
+    private Entry loadedEntry(Long flightId) {
+        Entry entry = entries.get(flightId);
+        if (entry == null) {
+            Entry created = new Entry(flightId);
+            created.lastAccess = accessClock.incrementAndGet();
+            entry = entries.putIfAbsent(flightId, created);
+            if (entry == null) {
+                entry = created;
+                loadAll(Map.of(flightId, created));
+            }
+        }
+        entry.lastAccess = accessClock.incrementAndGet();
+        return entry.loaded.join() == null ? null : entry;
+    }
+
+    /**
+     * Replaces the entry's seat map with the result of the update function,
+     * retrying if another thread changed it in between. Returns the new seat map,
+     * null if the function returned null (and nothing was changed), or
+     * {@link #RETIRED} if the entry is being removed.
+     */
+    private SeatMap update(Entry entry, UnaryOperator<SeatMap> function) {
+        while (true) {
+            SeatMap current = entry.current.get();
+            if (current == null || current == RETIRED) {
+                return current;
+            }
+            SeatMap updated = function.apply(current);
+            if (updated == null) {
+                return null;
+            }
+            if (entry.current.compareAndSet(current, updated)) {
+                notifyListeners(entry.flightId, updated);
+                return updated;
+            }
+        }
+    }
+
+    private void loadAll(Map<Long, Entry> toLoad) {
+        try {
+            Map<Long, SeatMap> seatMaps = transactionTemplate.execute(status -> {
+                Map<Long, List<Seat>> seatsByFlight = new HashMap<>();
+                Map<Long, AircraftType> aircraftTypes = new HashMap<>();
+                for (Object[] row : flightRepository.findSeatsByFlightIds(toLoad.keySet())) {
+                    seatsByFlight.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((Seat) row[2]);
+                    if (row[1] != null) {
+                        aircraftTypes.put((Long) row[0], (AircraftType) row[1]);
+                    }
+                }
+                Map<Long, SeatMap> loaded = new HashMap<>();
+                seatsByFlight.forEach((flightId, seats) -> loaded.put(flightId,
+                        compile(seats, aircraftTypes.get(flightId))));
+                // Flights without seats still need to be told apart from unknown flights.
+                List<Long> withoutSeats = toLoad.keySet().stream().filter(id -> !loaded.containsKey(id)).toList();
+                if (!withoutSeats.isEmpty()) {
+                    for (Flight flight : flightRepository.findAllById(withoutSeats)) {
+                        loaded.put(flight.getId(), compile(List.of(), flight.getAircraftType()));
+                    }
+                }
+                return loaded;
+            });
+            toLoad.forEach((flightId, entry) -> complete(flightId, entry, seatMaps.get(flightId)));
+            evictIfNeeded(toLoad.keySet());
+        } catch (RuntimeException e) {
+            toLoad.forEach((flightId, entry) -> {
+                entries.remove(flightId, entry);
+                entry.loaded.completeExceptionally(e);
+            });
+            throw e;
+        }
+    }
+
+    /**
+     * Compiles a seat map on the grid of the aircraft's cabin layout; flights
+     * without an aircraft type get a map of just their seats.
+     */
+    private SeatMap compile(List<Seat> seats, AircraftType aircraftType) {
+        return SeatMap.compile(seats, aircraftType == null ? null : aircraftType.getLayout(),
+                versions.incrementAndGet());
+    }
+
+    private void complete(Long flightId, Entry entry, SeatMap seatMap) {
+        // Fails if the entry was retired while loading; readers then reload it.
+        boolean current = seatMap != null && entry.current.compareAndSet(null, seatMap);
+        entry.loaded.complete(seatMap);
+        if (seatMap == null) {
+            // Do not cache unknown flights.
+            entries.remove(flightId, entry);
+        } else if (current) {
+            notifyListeners(flightId, seatMap);
+        }
+    }
+
+    /**
+     * Swaps the entry's seat map for {@link #RETIRED} if it is still the
+     * expected one, and only then removes the entry.
+     *
+     * @return False if the seat map changed in between.
+     */
+    private boolean retire(Entry entry, SeatMap expected) {
+        if (!entry.current.compareAndSet(expected, RETIRED)) {
+            return false;
+        }
+        entries.remove(entry.flightId, entry);
+        return true;
+    }
+
+    private void notifyListeners(Long flightId, SeatMap seatMap) {
+        for (Listener listener : listeners) {
+            listener.seatMapChanged(flightId, seatMap);
+        }
+    }
+
+    private boolean isPinned(Long flightId) {
+        for (Listener listener : listeners) {
+            if (listener.pins(flightId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Evicts least recently used flights until the cache is within its size
+     * limit. Only runs on a cache miss, so the linear scan is not on the hot path.
+     * Flights with held seats are skipped, because their holds only exist here,
+     * and so are flights a listener pins, flights that are still loading and
+     * the flights that were just loaded for the caller.
+     */
+    private void evictIfNeeded(Collection<Long> justLoaded) {
+        while (entries.size() > maximumSize) {
+            Entry eldest = null;
+            SeatMap eldestSeatMap = null;
+            for (Map.Entry<Long, Entry> candidate : entries.entrySet()) {
+                SeatMap seatMap = candidate.getValue().current.get();
+                if (seatMap == null || seatMap.hasHolds() || justLoaded.contains(candidate.getKey())
+                        || isPinned(candidate.getKey())) {
+                    continue;
+                }
+                if (eldest == null || candidate.getValue().lastAccess < eldest.lastAccess) {
+                    eldest = candidate.getValue();
+                    eldestSeatMap = seatMap;
+                }
+            }
+            if (eldest == null) {
+                return;
+            }
+            if (eldestSeatMap == RETIRED) {
+                entries.remove(eldest.flightId, eldest);
+            } else {
+                // Fails if a hold or another change landed since the scan; look again.
+                retire(eldest, eldestSeatMap);
+            }
+        }
+    }
+
+    /**
+     * Receives the seat maps of cached flights as they change. Called on the
+     * thread that made the change, so implementations must not block.
+     */
+    public interface Listener {
+
+        /**
+         * Called after a flight's seat map was loaded or replaced. Calls for the
+         * same flight can arrive out of order; use {@link SeatMap#getVersion()}
+         * to skip older maps.
+         *
+         * @param flightId The ID of the flight.
+         * @param seatMap  The new seat map.
+         */
+        void seatMapChanged(Long flightId, SeatMap seatMap);
+
+        /**
+         * @param flightId The ID of a cached flight.
+         * @return True to keep the flight from being evicted.
+         */
+        default boolean pins(Long flightId) {
+            return false;
+        }
+    }
+
+    private static final class Entry {
+        private final Long flightId;
+        private final CompletableFuture<SeatMap> loaded = new CompletableFuture<>();
+        private final AtomicReference<SeatMap> current = new AtomicReference<>();
+        private volatile long lastAccess;
+
+        private Entry(Long flightId) {
+            this.flightId = flightId;
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package FlightFinder.Backend.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Gzip compression of responses with a strong ETag.
+ *
+ * Tomcat's compression ({@code server.compression}) leaves those responses
+ * alone, because a compressed body is a different representation and must not
+ * have the same strong ETag. This filter compresses them itself and appends
+ * {@link HttpCachePolicy#GZIP_SUFFIX} to the ETag, which
+ * {@link HttpCachePolicy} accepts in If-None-Match as well. It uses the mime
+ * types and minimum size of {@code server.compression}. Responses written
+ * asynchronously (e.g. streamed seat maps) are sent as they are.
+ */
+public class ETagCompressionFilter extends OncePerRequestFilter {
+
+    private final List<MimeType> mimeTypes;
+    private final int minResponseSize;
+
+    public ETagCompressionFilter(String[] mimeTypes, int minResponseSize) {
+        this.mimeTypes = Arrays.stream(mimeTypes).map(MimeTypeUtils::parseMimeType).toList();
+        this.minResponseSize = minResponseSize;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+            chain.doFilter(request, response);
+            return;
+        }
+        CompressingResponse compressing = new CompressingResponse(request, response);
+        chain.doFilter(request, compressing);
+        if (!request.isAsyncStarted()) {
+            compressing.finish();
+        }
+    }
+
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Buffers the body until it reaches the minimum size, then decides whether
+     * to compress it.
+     */
+    private final class CompressingResponse extends HttpServletResponseWrapper {
+        private final HttpServletRequest request;
+        private CompressingOutputStream outputStream;
+        private PrintWriter writer;
+        private long contentLength = -1;
+
+        CompressingResponse(HttpServletRequest request, HttpServletResponse response) {
+            super(response);
+            this.request = request;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                outputStream = new CompressingOutputStream(this);
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+            }
+            return writer;
+        }
+
+        @Override
+        public void setContentLength(int length) {
+            setContentLengthLong(length);
+        }
+
+        @Override
+        public void setContentLengthLong(long length) {
+            if (outputStream != null && outputStream.target != null) {
+                if (!outputStream.compressing) {
+                    super.setContentLengthLong(length);
+                }
+            } else {
+                contentLength = length;
+            }
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                setContentLengthLong(Long.parseLong(value));
+            } else {
+                super.setHeader(name, value);
+            }
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                setContentLengthLong(Long.parseLong(value));
+            } else {
+                super.addHeader(name, value);
+            }
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            if (outputStream != null) {
+                outputStream.flush();
+            }
+            super.flushBuffer();
+        }
+
+        @Override
+        public void resetBuffer() {
+            super.resetBuffer();
+            if (outputStream != null && outputStream.target == null) {
+                outputStream.buffer.reset();
+            }
+        }
+
+        @Override
+        public void reset() {
+            super.reset();
+            contentLength = -1;
+            if (outputStream != null && outputStream.target == null) {
+                outputStream.buffer.reset();
+            }
+        }
+
+        void finish() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            if (outputStream != null) {
+                outputStream.finish();
+            }
+        }
+
+        /**
+         * @return True if the buffered body should be compressed: a successful,
+         *         synchronous response with a strong ETag and a compressible
+         *         content type that is not encoded yet.
+         */
+        boolean shouldCompress() {
+            String eTag = getHeader(HttpHeaders.ETAG);
+            String contentType = getContentType();
+            if (getStatus() != HttpServletResponse.SC_OK || request.isAsyncStarted() || eTag == null
+                    || !eTag.startsWith("\"") || contentType == null
+                    || getHeader(HttpHeaders.CONTENT_ENCODING) != null) {
+                return false;
+            }
+            MimeType type = MimeTypeUtils.parseMimeType(contentType);
+            return mimeTypes.stream().anyMatch(type::equalsTypeAndSubtype);
+        }
+
+        /**
+         * Switches the headers to the compressed representation.
+         */
+        void startCompression() {
+            String eTag = getHeader(HttpHeaders.ETAG);
+            super.setHeader(HttpHeaders.ETAG,
+                    eTag.substring(0, eTag.length() - 1) + HttpCachePolicy.GZIP_SUFFIX + "\"");
+            super.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            super.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+    }
+
+    private final class CompressingOutputStream extends ServletOutputStream {
+        private final CompressingResponse response;
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        /** Where the body goes once decided; null while buffering. */
+        private OutputStream target;
+        private ServletOutputStream out;
+        private boolean compressing;
+
+        CompressingOutputStream(CompressingResponse response) {
+            this.response = response;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (target == null) {
+                buffer.write(b);
+                if (buffer.size() >= minResponseSize) {
+                    decide();
+                }
+            } else {
+                target.write(b);
+            }
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            if (target == null) {
+                buffer.write(bytes, offset, length);
+                if (buffer.size() >= minResponseSize) {
+                    decide();
+                }
+            } else {
+                target.write(bytes, offset, length);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (target == null) {
+                decide();
+            }
+            target.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            finish();
+        }
+
+        @Override
+        public boolean isReady() {
+            return out == null || out.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            throw new UnsupportedOperationException("Non-blocking writes are not compressed");
+        }
+
+        void finish() throws IOException {
+            if (target == null) {
+                decide();
+            }
+            if (compressing) {
+                ((GZIPOutputStream) target).finish();
+            }
+            target.flush();
+        }
+
+        private void decide() throws IOException {
+            out = response.getResponse().getOutputStream();
+            compressing = buffer.size() >= minResponseSize && response.shouldCompress();
+            if (compressing) {
+                response.startCompression();
+                target = new GZIPOutputStream(out, 8192);
+            } else {
+                if (response.contentLength >= 0) {
+                    response.getResponse().setContentLengthLong(response.contentLength);
+                }
+                target = out;
+            }
+            buffer.writeTo(target);
+            buffer.reset();
+        }
+    }
+}
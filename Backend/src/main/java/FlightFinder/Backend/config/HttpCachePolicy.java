@@ -0,0 +1,102 @@
+package FlightFinder.Backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * ETags and Cache-Control headers of responses that clients poll, e.g. seat
+ * maps and filter results.
+ *
+ * ETags are built from versions the backend keeps anyway (the seat map version
+ * of a flight, the version of the flight catalog), so a conditional request can
+ * be answered with 304 before anything is loaded or serialized. Those versions
+ * count from zero again after a restart, so every ETag also carries a token of
+ * this start of the backend.
+ *
+ * Browsers revalidate on every request ({@code max-age=0}); a shared cache,
+ * e.g. a reverse proxy in front of the backend, may serve a response for
+ * {@code sharedMaxAge} before revalidating it.
+ */
+@Component
+public class HttpCachePolicy {
+
+    /**
+     * Suffix of the ETag of a gzip-compressed response, see
+     * {@link ETagCompressionFilter}.
+     */
+    static final String GZIP_SUFFIX = "-gzip";
+
+    private final String instance = Long.toString(ThreadLocalRandom.current().nextLong() >>> 1, 36);
+    private final CacheControl cacheControl;
+
+    public HttpCachePolicy(@Value("${flightfinder.http-cache.shared-max-age:PT1S}") Duration sharedMaxAge) {
+        this.cacheControl = CacheControl.maxAge(Duration.ZERO).sMaxAge(sharedMaxAge).cachePublic();
+    }
+
+    /**
+     * @param representation Name of the representation, e.g. "seats"; differs
+     *                       for every format of the same URL.
+     * @param version        Version of the data the response is built from.
+     * @return The strong ETag of the response.
+     */
+    public String eTag(String representation, long version) {
+        return "\"" + representation + "-" + instance + "-" + version + "\"";
+    }
+
+    /**
+     * @param ifNoneMatch The If-None-Match header of the request, or null.
+     * @param eTag        The ETag of the current response.
+     * @return True if the client has the current response, compressed or not.
+     */
+    public boolean isNotModified(String ifNoneMatch, String eTag) {
+        return match(ifNoneMatch, eTag) != null;
+    }
+
+    /**
+     * @param ifNoneMatch The If-None-Match header of the request.
+     * @param eTag        The ETag of the current response.
+     * @return A 304 response with the ETag the client sent.
+     */
+    public <T> ResponseEntity<T> notModified(String ifNoneMatch, String eTag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(match(ifNoneMatch, eTag))
+                .cacheControl(cacheControl)
+                .build();
+    }
+
+    /**
+     * @param eTag The ETag of the response.
+     * @return A 200 response with the ETag and Cache-Control headers.
+     */
+    public ResponseEntity.BodyBuilder ok(String eTag) {
+        return ResponseEntity.ok().eTag(eTag).cacheControl(cacheControl);
+    }
+
+    /**
+     * Returns the entry of If-None-Match that matches the ETag, as the strong
+     * ETag to answer with, or null. Compares weakly, as RFC 9110 requires for
+     * If-None-Match.
+     */
+    private static String match(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) {
+            return null;
+        }
+        String tag = eTag.substring(1, eTag.length() - 1);
+        for (ETag candidate : ETag.parse(ifNoneMatch)) {
+            if (candidate.isWildcard()) {
+                return eTag;
+            }
+            if (candidate.tag().equals(tag) || candidate.tag().equals(tag + GZIP_SUFFIX)) {
+                return "\"" + candidate.tag() + "\"";
+            }
+        }
+        return null;
+    }
+}
@@ -1,7 +1,11 @@
 package FlightFinder.Backend.config;
 
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.web.server.Compression;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
@@ -17,8 +21,22 @@ public class WebConfig {
                         .addMapping("/**") // Allow all endpoints
                         .allowedOrigins("http://localhost:5173")
                         .allowedMethods("GET", "POST", "PUT", "DELETE")
-                        .allowedHeaders("*"); // Allow all headers
+                        .allowedHeaders("*") // Allow all headers
+                        .exposedHeaders(HttpHeaders.ETAG); // For conditional requests
             }
         };
     }
+
+    /**
+     * Compresses responses with a strong ETag, which Tomcat's compression skips;
+     * enabled together with {@code server.compression}.
+     */
+    @Bean
+    public FilterRegistrationBean<ETagCompressionFilter> eTagCompressionFilter(ServerProperties serverProperties) {
+        Compression compression = serverProperties.getCompression();
+        FilterRegistrationBean<ETagCompressionFilter> registration = new FilterRegistrationBean<>(
+                new ETagCompressionFilter(compression.getMimeTypes(), (int) compression.getMinResponseSize().toBytes()));
+        registration.setEnabled(compression.getEnabled());
+        return registration;
+    }
 }
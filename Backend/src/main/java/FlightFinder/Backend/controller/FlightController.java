@@ -1,11 +1,33 @@
 package FlightFinder.Backend.controller;
 
+import FlightFinder.Backend.config.HttpCachePolicy;
+import FlightFinder.Backend.dto.CompactSeatMap;
+import FlightFinder.Backend.dto.FlightPage;
+import FlightFinder.Backend.dto.FlightSeatSearchResult;
 import FlightFinder.Backend.model.Flight;
 import FlightFinder.Backend.model.Seat;
+import FlightFinder.Backend.model.SeatFeature;
+import FlightFinder.Backend.service.FlightSeatSearchService;
 import FlightFinder.Backend.service.FlightService;
+import FlightFinder.Backend.service.FlightSortOrder;
+import FlightFinder.Backend.service.SeatMapFeedService;
+import FlightFinder.Backend.service.seatFinder.SeatMap;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.List;
@@ -14,10 +36,24 @@ import java.util.List;
 @RequestMapping("/flight")
 public class FlightController {
 
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int MAX_SEAT_SEARCH_RESULTS = 100;
+    private static final MediaType APPLICATION_CBOR = MediaType.valueOf("application/cbor");
+
     private final FlightService flightService;
+    private final FlightSeatSearchService flightSeatSearchService;
+    private final SeatMapFeedService seatMapFeedService;
+    private final ObjectMapper objectMapper;
+    private final HttpCachePolicy httpCachePolicy;
+    private final CBORFactory cborFactory = new CBORFactory();
 
-    public FlightController(FlightService flightService) {
+    public FlightController(FlightService flightService, FlightSeatSearchService flightSeatSearchService,
+            SeatMapFeedService seatMapFeedService, ObjectMapper objectMapper, HttpCachePolicy httpCachePolicy) {
         this.flightService = flightService;
+        this.flightSeatSearchService = flightSeatSearchService;
+        this.seatMapFeedService = seatMapFeedService;
+        this.objectMapper = objectMapper;
+        this.httpCachePolicy = httpCachePolicy;
     }
 
     /**
@@ -29,31 +65,209 @@ public class FlightController {
      * @param departureTime Optional departure time of the flight.
      * @param minPrice      Optional minimum price of the flight.
      * @param maxPrice      Optional maximum price of the flight.
-     * @return List of flights that match the provided filters.
+     * @param ifNoneMatch   ETag of the results the client has, if any.
+     * @return List of flights that match the provided filters, or 304 if the
+     *         flight catalog did not change since.
      */
-    @GetMapping("/filter")
-    public List<Flight> getFlightsByFilter(
+    @GetMapping(value = "/filter", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<Flight>> getFlightsByFilter(
             @RequestParam(required = false) String startLocation,
             @RequestParam(required = false) String destination,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate departureDate,
             @RequestParam(required = false) @DateTimeFormat(pattern = "HH:mm") LocalTime departureTime,
             @RequestParam(required = false) Double minPrice,
-            @RequestParam(required = false) Double maxPrice) {
-        return flightService.getFlightsWithFilters(
+            @RequestParam(required = false) Double maxPrice,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String eTag = httpCachePolicy.eTag("flights", flightService.getCatalogVersion());
+        if (httpCachePolicy.isNotModified(ifNoneMatch, eTag)) {
+            return httpCachePolicy.notModified(ifNoneMatch, eTag);
+        }
+        return httpCachePolicy.ok(eTag).body(flightService.getFlightsWithFilters(
                 startLocation,
                 destination,
                 departureDate,
                 departureTime,
                 minPrice,
-                maxPrice);
+                maxPrice));
+    }
+
+    /**
+     * Endpoint to get one page of flights matching the filter criteria.
+     *
+     * @param sort   Order of the results: DEPARTURE (default) or PRICE.
+     * @param cursor Optional cursor returned with the previous page.
+     * @param limit  Maximum number of flights on the page (at most 500).
+     * @return The page of flights and the cursor for the next page.
+     */
+    @GetMapping("/filter/page")
+    public FlightPage getFlightsPageByFilter(
+            @RequestParam(required = false) String startLocation,
+            @RequestParam(required = false) String destination,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate departureDate,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "HH:mm") LocalTime departureTime,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(defaultValue = "DEPARTURE") FlightSortOrder sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        try {
+            return flightService.getFlightsPage(
+                    startLocation,
+                    destination,
+                    departureDate,
+                    departureTime,
+                    minPrice,
+                    maxPrice,
+                    sort,
+                    cursor,
+                    Math.min(Math.max(limit, 1), MAX_PAGE_SIZE));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Endpoint to find the flights matching the filter criteria that have
+     * suitable seats, with the recommended seats of each flight.
+     *
+     * @param numSeatsRequired The number of seats the user wants to reserve.
+     * @param desiredFeatures  Optional list of desired seat features.
+     * @param limit            Maximum number of flights (at most 100).
+     * @return Flights with contiguous seats and more desired features first.
+     */
+    @GetMapping("/filter/seats")
+    public FlightSeatSearchResult getFlightsWithSeatsByFilter(
+            @RequestParam(required = false) String startLocation,
+            @RequestParam(required = false) String destination,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate departureDate,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "HH:mm") LocalTime departureTime,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam int numSeatsRequired,
+            @RequestParam(required = false) List<SeatFeature> desiredFeatures,
+            @RequestParam(defaultValue = "20") int limit) {
+        return flightSeatSearchService.searchFlightsWithSeats(
+                startLocation,
+                destination,
+                departureDate,
+                departureTime,
+                minPrice,
+                maxPrice,
+                numSeatsRequired,
+                desiredFeatures,
+                Math.min(Math.max(limit, 1), MAX_SEAT_SEARCH_RESULTS));
+    }
+
+    /**
+     * Endpoint to stream all flights matching the filter criteria as a JSON
+     * array. Flights are written as they are read from the database, so memory
+     * use does not depend on the size of the result.
+     *
+     * @param sort Order of the results: DEPARTURE (default) or PRICE.
+     * @return The streamed JSON array of flights.
+     */
+    @GetMapping("/filter/stream")
+    public ResponseEntity<StreamingResponseBody> streamFlightsByFilter(
+            @RequestParam(required = false) String startLocation,
+            @RequestParam(required = false) String destination,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate departureDate,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "HH:mm") LocalTime departureTime,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(defaultValue = "DEPARTURE") FlightSortOrder sort) {
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.writeStartArray();
+                flightService.streamFlightsWithFilters(
+                        startLocation,
+                        destination,
+                        departureDate,
+                        departureTime,
+                        minPrice,
+                        maxPrice,
+                        sort,
+                        flight -> {
+                            try {
+                                generator.writeObject(flight);
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                        });
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
     }
 
     /**
      * Endpoint to retrieve only the seat data for a specific flight.
+     *
+     * @param flightId    The ID of the flight.
+     * @param ifNoneMatch ETag of the seats the client has, if any.
+     * @return The seats, or 304 if their occupancy did not change since.
+     */
+    @GetMapping(value = "/{flightId}/seats", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<Seat>> getSeatsByFlight(
+            @PathVariable Long flightId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        SeatMap seatMap = flightService.getSeatMap(flightId);
+        String eTag = httpCachePolicy.eTag("seats", seatMap.getVersion());
+        if (httpCachePolicy.isNotModified(ifNoneMatch, eTag)) {
+            return httpCachePolicy.notModified(ifNoneMatch, eTag);
+        }
+        return httpCachePolicy.ok(eTag).body(seatMap.getSeats());
+    }
+
+    /**
+     * Endpoint to retrieve the seats of a flight in the compact row format, see
+     * {@link CompactSeatMap}. Written as JSON, or as CBOR if the client accepts
+     * {@code application/cbor}.
+     *
+     * @param flightId    The ID of the flight.
+     * @param accept      The Accept header of the request.
+     * @param ifNoneMatch ETag of the seat map the client has, if any.
+     * @return The streamed seat map, or 304 if the occupancy did not change
+     *         since.
+     */
+    @GetMapping("/{flightId}/seat-map")
+    public ResponseEntity<StreamingResponseBody> getSeatMapByFlight(
+            @PathVariable Long flightId,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        SeatMap seatMap = flightService.getSeatMap(flightId);
+        boolean cbor = accept != null && MediaType.parseMediaTypes(accept).stream()
+                .anyMatch(type -> type.equalsTypeAndSubtype(APPLICATION_CBOR));
+        String eTag = httpCachePolicy.eTag(cbor ? "seat-map-cbor" : "seat-map", seatMap.getVersion());
+        if (httpCachePolicy.isNotModified(ifNoneMatch, eTag)) {
+            return httpCachePolicy.notModified(ifNoneMatch, eTag);
+        }
+        JsonFactory factory = cbor ? cborFactory : objectMapper.getFactory();
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = factory.createGenerator(outputStream)) {
+                CompactSeatMap.write(flightId, seatMap, generator);
+            }
+        };
+        return httpCachePolicy.ok(eTag)
+                .varyBy(HttpHeaders.ACCEPT)
+                .contentType(cbor ? APPLICATION_CBOR : MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    /**
+     * Endpoint to follow the seats of a flight as Server-Sent Events: a
+     * {@code snapshot} of the seat map first, then a {@code delta} whenever
+     * seats become occupied or free.
+     *
+     * @param flightId    The ID of the flight.
+     * @param lastEventId The ID of the last event received before a reconnect;
+     *                    sent automatically by {@code EventSource}.
+     * @return The event stream.
      */
-    @GetMapping("/{flightId}/seats")
-    public List<Seat> getSeatsByFlight(@PathVariable Long flightId) {
-        return flightService.getSeatsByFlight(flightId);
+    @GetMapping(value = "/{flightId}/seats/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamSeatMap(
+            @PathVariable Long flightId,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return seatMapFeedService.subscribe(flightId, lastEventId);
     }
 
     /**
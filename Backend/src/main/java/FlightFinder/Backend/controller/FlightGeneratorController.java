@@ -0,0 +1,51 @@
+package FlightFinder.Backend.controller;
+
+import FlightFinder.Backend.dto.GenerationReport;
+import FlightFinder.Backend.service.FlightGeneratorService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Bulk insertion of random flights for capacity tests. Only registered when
+ * {@code flightfinder.generator.enabled} is true, so production deployments do
+ * not expose it.
+ */
+@RestController
+@RequestMapping("/flight")
+@ConditionalOnProperty(name = "flightfinder.generator.enabled", havingValue = "true")
+public class FlightGeneratorController {
+
+    private final FlightGeneratorService flightGeneratorService;
+
+    public FlightGeneratorController(FlightGeneratorService flightGeneratorService) {
+        this.flightGeneratorService = flightGeneratorService;
+    }
+
+    /**
+     * Endpoint to bulk insert random flights, e.g. to seed a database for
+     * capacity tests.
+     *
+     * @param count       Number of flights to generate (1 to 100000).
+     * @param rows        Number of seat rows per flight (1 to 99).
+     * @param seatsPerRow Number of seats in each row (1 to 64).
+     * @param occupancy   Probability of a seat being occupied (0 to 1).
+     * @param seed        Seed of the random generator; the same seed produces
+     *                    the same flights.
+     * @return Row counts and throughput of the run.
+     */
+    @PostMapping("/generate")
+    public GenerationReport generateFlights(
+            @RequestParam int count,
+            @RequestParam(defaultValue = "12") int rows,
+            @RequestParam(defaultValue = "6") int seatsPerRow,
+            @RequestParam(defaultValue = "0.5") double occupancy,
+            @RequestParam(defaultValue = "0") long seed) {
+        try {
+            return flightGeneratorService.generateFlights(count, rows, seatsPerRow, occupancy, seed);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+}
@@ -1,9 +1,18 @@
 package FlightFinder.Backend.controller;
 
+import FlightFinder.Backend.dto.Party;
+import FlightFinder.Backend.metrics.SeatRecommendationMetrics;
+import FlightFinder.Backend.metrics.SeatRecommendationMetrics.Stage;
 import FlightFinder.Backend.model.Seat;
 import FlightFinder.Backend.model.SeatFeature;
 import FlightFinder.Backend.service.SeatService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
 
@@ -11,10 +20,17 @@ import java.util.List;
 @RequestMapping("/seat-recommendations")
 public class SeatController {
 
+    private static final int MAX_OPTIONS = 10;
+    private static final int MAX_PARTIES = 500;
+
     private final SeatService seatService;
+    private final SeatRecommendationMetrics metrics;
+    private final ObjectMapper objectMapper;
 
-    public SeatController(SeatService seatService) {
+    public SeatController(SeatService seatService, SeatRecommendationMetrics metrics, ObjectMapper objectMapper) {
         this.seatService = seatService;
+        this.metrics = metrics;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -29,10 +45,54 @@ public class SeatController {
      * @return List of recommended seats for the given flight.
      */
     @GetMapping("/{flightId}/")
-    public List<Seat> getSeatRecommendations(
+    public ResponseEntity<byte[]> getSeatRecommendations(
             @PathVariable Long flightId,
             @RequestParam int numSeatsRequired,
-            @RequestParam(required = false) List<SeatFeature> desiredFeatures) {
-        return seatService.getSeatRecommendations(flightId, numSeatsRequired, desiredFeatures);
+            @RequestParam(required = false) List<SeatFeature> desiredFeatures) throws JsonProcessingException {
+        List<Seat> seats = seatService.getSeatRecommendations(flightId, numSeatsRequired, desiredFeatures);
+
+        // Serialized here rather than by the message converter, so it can be timed as a stage.
+        long start = System.nanoTime();
+        byte[] body = objectMapper.writeValueAsBytes(seats);
+        metrics.start(numSeatsRequired, desiredFeatures).stage(Stage.SERIALIZATION, start);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    /**
+     * Endpoint to get alternative seat groups, e.g. to let the user choose
+     * between three options.
+     *
+     * @param flightId         The ID of the flight.
+     * @param numSeatsRequired The number of seats the user wants to reserve.
+     * @param desiredFeatures  Optional list of desired seat features.
+     * @param count            Number of options wanted (at most 10).
+     * @return Up to {@code count} seat groups, best first.
+     */
+    @GetMapping("/{flightId}/options")
+    public List<List<Seat>> getSeatRecommendationOptions(
+            @PathVariable Long flightId,
+            @RequestParam int numSeatsRequired,
+            @RequestParam(required = false) List<SeatFeature> desiredFeatures,
+            @RequestParam(defaultValue = "3") int count) {
+        return seatService.getSeatRecommendationOptions(flightId, numSeatsRequired, desiredFeatures,
+                Math.min(Math.max(count, 1), MAX_OPTIONS));
+    }
+
+    /**
+     * Endpoint to seat several parties on the same flight at once, without
+     * giving two parties the same seat.
+     *
+     * @param flightId The ID of the flight.
+     * @param parties  The parties to seat (at most 500).
+     * @return The recommended seats of each party, in request order; empty for
+     *         parties that could not be seated.
+     */
+    @PostMapping("/{flightId}/batch")
+    public List<List<Seat>> allocateParties(@PathVariable Long flightId, @RequestBody List<Party> parties) {
+        if (parties.size() > MAX_PARTIES) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + MAX_PARTIES + " parties per request");
+        }
+        return seatService.allocateParties(flightId, parties);
     }
 }
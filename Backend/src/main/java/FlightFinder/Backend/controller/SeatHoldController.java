@@ -0,0 +1,79 @@
+package FlightFinder.Backend.controller;
+
+import FlightFinder.Backend.dto.SeatHold;
+import FlightFinder.Backend.model.Seat;
+import FlightFinder.Backend.model.SeatFeature;
+import FlightFinder.Backend.service.SeatHoldService;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/seat-holds")
+public class SeatHoldController {
+
+    private final SeatHoldService seatHoldService;
+
+    public SeatHoldController(SeatHoldService seatHoldService) {
+        this.seatHoldService = seatHoldService;
+    }
+
+    /**
+     * Endpoint to hold the recommended seats for a flight until the hold is
+     * confirmed, released or expires.
+     *
+     * @param flightId         The ID of the flight.
+     * @param numSeatsRequired The number of seats the user wants to reserve.
+     * @param desiredFeatures  Optional list of desired seat features.
+     * @return The created hold; 409 if no suitable seats are free.
+     */
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public SeatHold holdRecommendedSeats(
+            @RequestParam Long flightId,
+            @RequestParam int numSeatsRequired,
+            @RequestParam(required = false) List<SeatFeature> desiredFeatures) {
+        return seatHoldService.holdRecommendedSeats(flightId, numSeatsRequired, desiredFeatures);
+    }
+
+    /**
+     * Endpoint to hold specific seats of a flight, either all of them or none.
+     *
+     * @param flightId The ID of the flight.
+     * @param seatIds  IDs of the seats to hold.
+     * @return The created hold; 409 if any of the seats is not free.
+     */
+    @PostMapping("/seats")
+    @ResponseStatus(HttpStatus.CREATED)
+    public SeatHold holdSeats(@RequestParam Long flightId, @RequestBody List<Long> seatIds) {
+        try {
+            return seatHoldService.holdSeats(flightId, seatIds);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Endpoint to book the seats of a hold.
+     *
+     * @param holdId The ID of the hold.
+     * @return The booked seats; 404 if the hold expired.
+     */
+    @PostMapping("/{holdId}/confirm")
+    public List<Seat> confirmHold(@PathVariable String holdId) {
+        return seatHoldService.confirmHold(holdId);
+    }
+
+    /**
+     * Endpoint to release the seats of a hold.
+     *
+     * @param holdId The ID of the hold.
+     */
+    @DeleteMapping("/{holdId}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void releaseHold(@PathVariable String holdId) {
+        seatHoldService.releaseHold(holdId);
+    }
+}
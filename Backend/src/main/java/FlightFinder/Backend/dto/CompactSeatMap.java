@@ -0,0 +1,95 @@
+package FlightFinder.Backend.dto;
+
+import FlightFinder.Backend.model.CabinLayout;
+import FlightFinder.Backend.model.SeatFeature;
+import FlightFinder.Backend.service.seatFinder.SeatMap;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+
+/**
+ * Compact wire format of a flight's seat map.
+ *
+ * Instead of one object per seat, every row is written once with bitmasks:
+ * bit {@code i} of a mask stands for seat number {@code first + i}. The
+ * {@code features} legend gives the order of the per-row feature masks, and
+ * {@code ids} lists the IDs of the row's seats in seat number order. Held
+ * seats are reported as occupied, like in the seat list.
+ *
+ * For flights with an aircraft type, {@code columns} gives the column letters
+ * with a space per aisle, {@code aisles} has bit {@code i} set if there is an
+ * aisle after seat {@code first + i}, and every row has its {@code cabin}
+ * class. All rows of the layout are listed, including rows without seats.
+ *
+ * <pre>
+ * {"flightId":1,"version":7,"features":["WINDOW_SEAT","MORE_LEGROOM","CLOSE_TO_EXIT"],
+ *  "columns":"ABC DEF","aisles":4,
+ *  "rows":[{"row":"1","cabin":"BUSINESS","first":1,"seats":63,"occupied":6,"features":[33,63,0],
+ *           "ids":[1,2,3,4,5,6]}]}
+ * </pre>
+ *
+ * Masks are 64-bit signed integers; JavaScript clients can only read them
+ * exactly for rows narrower than 53 seats.
+ */
+public final class CompactSeatMap {
+
+    private static final SeatFeature[] FEATURES = SeatFeature.values();
+
+    private CompactSeatMap() {
+    }
+
+    /**
+     * Writes the seat map as one object to the generator, which may be a JSON
+     * or a binary (e.g. CBOR) generator.
+     *
+     * @param flightId  The ID of the flight.
+     * @param seatMap   The seat map to write.
+     * @param generator The generator to write to.
+     * @throws IOException if writing fails.
+     */
+    public static void write(Long flightId, SeatMap seatMap, JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("flightId", flightId);
+        generator.writeNumberField("version", seatMap.getVersion());
+
+        generator.writeArrayFieldStart("features");
+        for (SeatFeature feature : FEATURES) {
+            generator.writeString(feature.name());
+        }
+        generator.writeEndArray();
+
+        CabinLayout layout = seatMap.getLayout();
+        if (layout != null) {
+            generator.writeStringField("columns", layout.getColumns());
+            generator.writeNumberField("aisles", layout.getAisleMask());
+        }
+
+        generator.writeArrayFieldStart("rows");
+        for (int r = 0; r < seatMap.getRowCount(); r++) {
+            long present = seatMap.getPresentMask(r);
+            generator.writeStartObject();
+            generator.writeStringField("row", seatMap.getRowLabel(r));
+            if (layout != null) {
+                generator.writeStringField("cabin", seatMap.getCabinClass(r).name());
+            }
+            generator.writeNumberField("first", seatMap.getRowBase(r));
+            generator.writeNumberField("seats", present);
+            generator.writeNumberField("occupied", present & ~seatMap.getFreeMask(r));
+
+            generator.writeArrayFieldStart("features");
+            for (SeatFeature feature : FEATURES) {
+                generator.writeNumber(seatMap.getFeatureMask(feature, r));
+            }
+            generator.writeEndArray();
+
+            generator.writeArrayFieldStart("ids");
+            for (long remaining = present; remaining != 0; remaining &= remaining - 1) {
+                generator.writeNumber(seatMap.getSeat(r, Long.numberOfTrailingZeros(remaining)).getId());
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+}
@@ -0,0 +1,14 @@
+package FlightFinder.Backend.dto;
+
+import FlightFinder.Backend.model.Flight;
+
+import java.util.List;
+
+/**
+ * One page of flight search results.
+ *
+ * @param flights    Flights on this page.
+ * @param nextCursor Cursor for the next page, or null if this is the last page.
+ */
+public record FlightPage(List<Flight> flights, String nextCursor) {
+}
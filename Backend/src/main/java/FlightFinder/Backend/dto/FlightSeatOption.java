@@ -0,0 +1,17 @@
+package FlightFinder.Backend.dto;
+
+import FlightFinder.Backend.model.Flight;
+import FlightFinder.Backend.model.Seat;
+
+import java.util.List;
+
+/**
+ * A flight with the seats recommended on it for a seat search.
+ *
+ * @param flight       The flight.
+ * @param seats        The recommended seats.
+ * @param contiguous   Whether the seats are next to each other in one row.
+ * @param featureScore Number of desired features found on the seats.
+ */
+public record FlightSeatOption(Flight flight, List<Seat> seats, boolean contiguous, int featureScore) {
+}
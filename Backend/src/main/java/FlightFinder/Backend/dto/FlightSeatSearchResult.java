@@ -0,0 +1,14 @@
+package FlightFinder.Backend.dto;
+
+import java.util.List;
+
+/**
+ * Result of a search for flights with suitable seats.
+ *
+ * @param flights    Flights with suitable seats, best first.
+ * @param candidates Number of flights matching the filters.
+ * @param complete   False if not every matching flight could be evaluated,
+ *                   because there were too many or the deadline passed.
+ */
+public record FlightSeatSearchResult(List<FlightSeatOption> flights, int candidates, boolean complete) {
+}
@@ -0,0 +1,15 @@
+package FlightFinder.Backend.dto;
+
+/**
+ * Outcome of a bulk flight generation run.
+ *
+ * @param flights       Number of flights inserted.
+ * @param seats         Number of seats inserted.
+ * @param seatFeatures  Number of seat features set on the inserted seats.
+ * @param method        How the rows were written: COPY or JDBC_BATCH.
+ * @param millis        Wall-clock time of the run.
+ * @param rowsPerSecond Inserted flight and seat rows per second.
+ */
+public record GenerationReport(int flights, long seats, long seatFeatures, String method, long millis,
+        double rowsPerSecond) {
+}
@@ -0,0 +1,14 @@
+package FlightFinder.Backend.dto;
+
+import FlightFinder.Backend.model.SeatFeature;
+
+import java.util.List;
+
+/**
+ * One party of a batch seat allocation.
+ *
+ * @param numSeatsRequired The number of seats the party needs.
+ * @param desiredFeatures  Optional desired seat features.
+ */
+public record Party(int numSeatsRequired, List<SeatFeature> desiredFeatures) {
+}
@@ -0,0 +1,18 @@
+package FlightFinder.Backend.dto;
+
+import FlightFinder.Backend.model.Seat;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Seats temporarily reserved for one customer until the hold is confirmed,
+ * released or expires.
+ *
+ * @param holdId    ID used to confirm or release the hold.
+ * @param flightId  The ID of the flight.
+ * @param seats     The held seats.
+ * @param expiresAt When the seats are released if the hold is not confirmed.
+ */
+public record SeatHold(String holdId, Long flightId, List<Seat> seats, Instant expiresAt) {
+}
@@ -0,0 +1,14 @@
+package FlightFinder.Backend.dto;
+
+import java.util.List;
+
+/**
+ * Occupancy changes of a flight's seats between two seat map versions. Held
+ * seats count as occupied.
+ *
+ * @param version  The seat map version after the changes.
+ * @param occupied IDs of the seats that became occupied.
+ * @param free     IDs of the seats that became free.
+ */
+public record SeatMapDelta(long version, List<Long> occupied, List<Long> free) {
+}
@@ -0,0 +1,16 @@
+package FlightFinder.Backend.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a flight's seat map feed already has as many subscribers as
+ * allowed.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class SeatFeedLimitException extends RuntimeException {
+
+    public SeatFeedLimitException(String message) {
+        super(message);
+    }
+}
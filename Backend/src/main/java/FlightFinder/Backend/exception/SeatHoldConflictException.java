@@ -0,0 +1,20 @@
+package FlightFinder.Backend.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when seats can not be held or booked because another customer got
+ * them first.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class SeatHoldConflictException extends RuntimeException {
+
+    public SeatHoldConflictException(String message) {
+        super(message);
+    }
+
+    public SeatHoldConflictException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
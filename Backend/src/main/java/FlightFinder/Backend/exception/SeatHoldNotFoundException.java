@@ -0,0 +1,16 @@
+package FlightFinder.Backend.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a seat hold does not exist, for example because it has already
+ * expired, been confirmed or been released.
+ */
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class SeatHoldNotFoundException extends RuntimeException {
+
+    public SeatHoldNotFoundException(String holdId) {
+        super("Seat hold not found or expired: " + holdId);
+    }
+}
@@ -0,0 +1,16 @@
+package FlightFinder.Backend.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a flight already has as many seat recommendations in progress
+ * as allowed.
+ */
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class SeatRecommendationLimitException extends RuntimeException {
+
+    public SeatRecommendationLimitException(String message) {
+        super(message);
+    }
+}
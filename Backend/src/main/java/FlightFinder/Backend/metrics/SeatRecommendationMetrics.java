@@ -0,0 +1,196 @@
+package FlightFinder.Backend.metrics;
+
+import FlightFinder.Backend.model.SeatFeature;
+import FlightFinder.Backend.service.seatFinder.SeatMap;
+import io.micrometer.core.instrument.*;
+import io.micrometer.core.instrument.Meter.MeterProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer meters of the seat recommendation pipeline, exported through
+ * {@code /actuator/prometheus}.
+ *
+ * Every meter is tagged with the requested group size and features, so a p99
+ * regression can be traced to a pipeline stage and to the kind of request that
+ * triggers it. Group sizes above {@value #MAX_GROUP_SIZE_TAG} share one tag
+ * value to keep the number of time series bounded.
+ */
+@Component
+public class SeatRecommendationMetrics {
+
+    /** Recording that does not record anything, e.g. for benchmarks. */
+    public static final Recording DISABLED = new Recording(null, null);
+
+    private static final int MAX_GROUP_SIZE_TAG = 9;
+
+    private final MeterProvider<Timer> stageTimers;
+    private final MeterProvider<Counter> candidateCounters;
+    private final MeterProvider<Counter> mixedFallbackCounters;
+    private final MeterProvider<Counter> emptyResultCounters;
+    private final MeterProvider<Counter> admissionCounters;
+    private final MeterProvider<DistributionSummary> cabinSeatSummaries;
+    private final MeterProvider<DistributionSummary> cabinOccupancySummaries;
+
+    public SeatRecommendationMetrics(MeterRegistry registry) {
+        stageTimers = Timer.builder("seat.recommendation.stage")
+                .description("Time spent in each stage of a seat recommendation")
+                .publishPercentileHistogram()
+                .withRegistry(registry);
+        candidateCounters = Counter.builder("seat.recommendation.candidates")
+                .description("Candidate seat groups evaluated by the seat finders")
+                .withRegistry(registry);
+        mixedFallbackCounters = Counter.builder("seat.recommendation.mixed.fallbacks")
+                .description("Recommendations that fell back to a mixed seat group")
+                .withRegistry(registry);
+        emptyResultCounters = Counter.builder("seat.recommendation.empty")
+                .description("Recommendations that found no seats")
+                .withRegistry(registry);
+        admissionCounters = Counter.builder("seat.recommendation.requests")
+                .description("Recommendation requests by whether they were computed, joined an identical"
+                        + " request in progress (coalesced) or rejected")
+                .withRegistry(registry);
+        cabinSeatSummaries = DistributionSummary.builder("seat.recommendation.cabin.seats")
+                .description("Number of seats of the flight at request time")
+                .withRegistry(registry);
+        cabinOccupancySummaries = DistributionSummary.builder("seat.recommendation.cabin.occupancy")
+                .description("Share of the flight's seats that were not free at request time")
+                .baseUnit("ratio")
+                .withRegistry(registry);
+    }
+
+    /**
+     * Starts recording one seat recommendation request.
+     *
+     * @param numSeatsRequired The number of seats required.
+     * @param desiredFeatures  The desired seat features (may be null).
+     * @return The recording to report the stages of the request to.
+     */
+    public Recording start(int numSeatsRequired, List<SeatFeature> desiredFeatures) {
+        String groupSize = numSeatsRequired > MAX_GROUP_SIZE_TAG ? MAX_GROUP_SIZE_TAG + "+"
+                : String.valueOf(numSeatsRequired);
+        return new Recording(this, Tags.of("groupSize", groupSize, "features", featuresTag(desiredFeatures)));
+    }
+
+    /**
+     * Returns the desired features as a tag value in {@link SeatFeature} order,
+     * e.g. {@code WINDOW_SEAT+CLOSE_TO_EXIT}, or {@code none}.
+     */
+    private static String featuresTag(List<SeatFeature> features) {
+        int bits = SeatMap.featureBits(features);
+        if (bits == 0) {
+            return "none";
+        }
+        StringJoiner tag = new StringJoiner("+");
+        for (SeatFeature feature : SeatFeature.values()) {
+            if ((bits & (1 << feature.ordinal())) != 0) {
+                tag.add(feature.name());
+            }
+        }
+        return tag.toString();
+    }
+
+    /**
+     * Stages of a seat recommendation. Loading a flight and its seats is one
+     * query (see {@link FlightFinder.Backend.cache.SeatMapCache}), so a seat
+     * map cache miss is a stage of its own.
+     */
+    public enum Stage {
+        SEAT_MAP("seat-map"),
+        SEAT_MAP_LOAD("seat-map-load"),
+        CONTIGUOUS("contiguous"),
+        MIXED("mixed"),
+        SERIALIZATION("serialization");
+
+        private final String tag;
+
+        Stage(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    /**
+     * What happened to a recommendation request on admission; the coalescing
+     * ratio is the share of {@code coalesced} requests.
+     */
+    public enum Admission {
+        COMPUTED("computed"),
+        COALESCED("coalesced"),
+        REJECTED("rejected");
+
+        private final String tag;
+
+        Admission(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    /**
+     * Meters of one request, tagged with its group size and features.
+     */
+    public static final class Recording {
+        private final SeatRecommendationMetrics metrics;
+        private final Tags tags;
+
+        private Recording(SeatRecommendationMetrics metrics, Tags tags) {
+            this.metrics = metrics;
+            this.tags = tags;
+        }
+
+        /**
+         * Records the time of a stage that started at {@code startNanos}
+         * ({@link System#nanoTime()}).
+         */
+        public void stage(Stage stage, long startNanos) {
+            if (metrics != null) {
+                metrics.stageTimers.withTags(tags.and("stage", stage.tag))
+                        .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        /**
+         * Records the number of candidate groups a finder evaluated, as counted
+         * by the finder during its search.
+         */
+        public void candidates(Stage finder, long count) {
+            if (metrics != null) {
+                metrics.candidateCounters.withTags(tags.and("finder", finder.tag)).increment(count);
+            }
+        }
+
+        public void mixedFallback() {
+            if (metrics != null) {
+                metrics.mixedFallbackCounters.withTags(tags).increment();
+            }
+        }
+
+        public void admission(Admission admission) {
+            if (metrics != null) {
+                metrics.admissionCounters.withTags(tags.and("admission", admission.tag)).increment();
+            }
+        }
+
+        public void emptyResult() {
+            if (metrics != null) {
+                metrics.emptyResultCounters.withTags(tags).increment();
+            }
+        }
+
+        /**
+         * Records the cabin size and occupancy of the flight.
+         */
+        public void cabin(SeatMap seatMap) {
+            if (metrics != null) {
+                int seats = seatMap.getSeatCount();
+                metrics.cabinSeatSummaries.withTags(tags).record(seats);
+                if (seats > 0) {
+                    metrics.cabinOccupancySummaries.withTags(tags)
+                            .record(1 - (double) seatMap.getAvailableCount() / seats);
+                }
+            }
+        }
+    }
+}
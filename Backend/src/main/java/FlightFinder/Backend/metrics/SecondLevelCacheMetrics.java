@@ -0,0 +1,41 @@
+package FlightFinder.Backend.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.CacheImplementor;
+import org.springframework.stereotype.Component;
+
+import javax.cache.CacheManager;
+
+/**
+ * Size, hit, miss and eviction meters ({@code cache.*}, tagged with the region
+ * name) of the regions of the Hibernate second-level cache.
+ *
+ * Hibernate's own statistics are exported as the {@code hibernate.*} meters,
+ * e.g. {@code hibernate.second.level.cache.requests} and
+ * {@code hibernate.cache.query.requests}; they do not include evictions.
+ */
+@Component
+public class SecondLevelCacheMetrics implements MeterBinder {
+
+    private final SessionFactory sessionFactory;
+
+    public SecondLevelCacheMetrics(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CacheImplementor cache = sessionFactory.getCache().unwrap(CacheImplementor.class);
+        if (cache.getRegionFactory() instanceof JCacheRegionFactory regionFactory) {
+            CacheManager cacheManager = regionFactory.getCacheManager();
+            for (String name : cacheManager.getCacheNames()) {
+                JCacheMetrics.monitor(registry, cacheManager.getCache(name));
+            }
+        }
+    }
+}
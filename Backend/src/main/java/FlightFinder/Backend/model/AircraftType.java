@@ -0,0 +1,28 @@
+package FlightFinder.Backend.model;
+
+/**
+ * Aircraft types flights can be operated with, each with its cabin layout.
+ * Stored by name, so constants must not be renamed.
+ */
+public enum AircraftType {
+    /** Single aisle, 3-3, 30 rows. */
+    A320(CabinLayout.of("ABC DEF", 1, 30)
+            .withCabin(CabinClass.BUSINESS, 1, 3)
+            .withExitRows(12, 13)),
+
+    /** Twin aisle, 3-4-3, 60 rows. */
+    B777(CabinLayout.of("ABC DEFG HJK", 1, 60)
+            .withCabin(CabinClass.BUSINESS, 1, 6)
+            .withCabin(CabinClass.PREMIUM_ECONOMY, 7, 12)
+            .withExitRows(13, 31, 48));
+
+    private final CabinLayout layout;
+
+    AircraftType(CabinLayout layout) {
+        this.layout = layout;
+    }
+
+    public CabinLayout getLayout() {
+        return layout;
+    }
+}
@@ -0,0 +1,10 @@
+package FlightFinder.Backend.model;
+
+/**
+ * Cabin classes of an aircraft, from front to back.
+ */
+public enum CabinClass {
+    BUSINESS,
+    PREMIUM_ECONOMY,
+    ECONOMY
+}
@@ -0,0 +1,226 @@
+package FlightFinder.Backend.model;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Seating layout of an aircraft type: numbered rows, lettered columns with
+ * aisles between them, cabin classes and exit rows.
+ *
+ * The columns are written as letters with a space for every aisle, e.g.
+ * {@code "ABC DEFG HJK"} for a 3-4-3 twin-aisle cabin. A seat of a flight with
+ * this layout has the row number as its {@link Seat#getRow() row} and the
+ * 1-based column index as its {@link Seat#getSeatNumber() seat number}, so
+ * seat 12H is row "12", seat number 8.
+ *
+ * Layouts are immutable; the {@code with...} methods return new layouts.
+ */
+public final class CabinLayout {
+
+    /** Maximum number of columns, so a row fits into one 64-bit mask. */
+    public static final int MAX_COLUMNS = Long.SIZE;
+
+    private final String columns;
+    private final char[] letters;
+    private final int[] positions;
+    private final long aisles;
+    private final int firstRow;
+    private final CabinClass[] cabinClasses;
+    private final boolean[] exitRows;
+
+    private CabinLayout(String columns, char[] letters, int[] positions, long aisles, int firstRow,
+            CabinClass[] cabinClasses, boolean[] exitRows) {
+        this.columns = columns;
+        this.letters = letters;
+        this.positions = positions;
+        this.aisles = aisles;
+        this.firstRow = firstRow;
+        this.cabinClasses = cabinClasses;
+        this.exitRows = exitRows;
+    }
+
+    /**
+     * Creates an all-economy layout without exit rows.
+     *
+     * @param columns  Column letters, with a space for every aisle.
+     * @param firstRow Number of the first row.
+     * @param lastRow  Number of the last row.
+     * @return The layout.
+     * @throws IllegalArgumentException if the columns or rows are invalid.
+     */
+    public static CabinLayout of(String columns, int firstRow, int lastRow) {
+        if (firstRow < 1 || lastRow < firstRow) {
+            throw new IllegalArgumentException("Invalid rows " + firstRow + " to " + lastRow);
+        }
+        String trimmed = columns.strip();
+        char[] letters = new char[trimmed.length()];
+        int[] positions = new int[trimmed.length()];
+        long aisles = 0;
+        int count = 0;
+        for (int i = 0; i < trimmed.length(); i++) {
+            char c = trimmed.charAt(i);
+            if (c == ' ') {
+                if (trimmed.charAt(i - 1) != ' ') {
+                    aisles |= 1L << (count - 1);
+                }
+                continue;
+            }
+            if (c < 'A' || c > 'Z' || trimmed.indexOf(c) != i) {
+                throw new IllegalArgumentException("Invalid column " + c + " in " + columns);
+            }
+            if (count == MAX_COLUMNS) {
+                throw new IllegalArgumentException("More than " + MAX_COLUMNS + " columns in " + columns);
+            }
+            letters[count] = c;
+            // Position across the cabin; an aisle counts as one seat.
+            positions[count] = count + Long.bitCount(aisles);
+            count++;
+        }
+        if (count == 0) {
+            throw new IllegalArgumentException("No columns in " + columns);
+        }
+
+        CabinClass[] cabinClasses = new CabinClass[lastRow - firstRow + 1];
+        Arrays.fill(cabinClasses, CabinClass.ECONOMY);
+        return new CabinLayout(trimmed, Arrays.copyOf(letters, count), Arrays.copyOf(positions, count), aisles,
+                firstRow, cabinClasses, new boolean[cabinClasses.length]);
+    }
+
+    /**
+     * Returns a copy of this layout with the given rows in a cabin class.
+     *
+     * @param cabinClass The cabin class.
+     * @param fromRow    Number of the first row of the cabin.
+     * @param toRow      Number of the last row of the cabin.
+     * @return The new layout.
+     * @throws IllegalArgumentException if the rows are not part of the layout.
+     */
+    public CabinLayout withCabin(CabinClass cabinClass, int fromRow, int toRow) {
+        if (fromRow > toRow || !hasRow(fromRow) || !hasRow(toRow)) {
+            throw new IllegalArgumentException("Invalid rows " + fromRow + " to " + toRow);
+        }
+        CabinClass[] newCabinClasses = cabinClasses.clone();
+        Arrays.fill(newCabinClasses, fromRow - firstRow, toRow - firstRow + 1, cabinClass);
+        return new CabinLayout(columns, letters, positions, aisles, firstRow, newCabinClasses, exitRows);
+    }
+
+    /**
+     * Returns a copy of this layout with the given rows marked as exit rows.
+     *
+     * @param rows Numbers of the exit rows.
+     * @return The new layout.
+     * @throws IllegalArgumentException if a row is not part of the layout.
+     */
+    public CabinLayout withExitRows(int... rows) {
+        boolean[] newExitRows = exitRows.clone();
+        for (int row : rows) {
+            if (!hasRow(row)) {
+                throw new IllegalArgumentException("Invalid row " + row);
+            }
+            newExitRows[row - firstRow] = true;
+        }
+        return new CabinLayout(columns, letters, positions, aisles, firstRow, cabinClasses, newExitRows);
+    }
+
+    /**
+     * Returns the row index (0 for the first row) of a row label, or -1 if the
+     * label is not the number of a row of this layout.
+     *
+     * @param rowLabel The row of a seat.
+     * @return The row index, or -1.
+     */
+    public int rowIndex(String rowLabel) {
+        int number = 0;
+        for (int i = 0; i < rowLabel.length(); i++) {
+            char c = rowLabel.charAt(i);
+            if (c < '0' || c > '9' || number > getLastRow()) {
+                return -1;
+            }
+            number = number * 10 + (c - '0');
+        }
+        return rowLabel.isEmpty() || !hasRow(number) ? -1 : number - firstRow;
+    }
+
+    /**
+     * Gives the features a seat has by its position: window seats are in the
+     * outer columns, seats in exit rows and outside economy have more legroom,
+     * and seats in and next to exit rows are close to an exit.
+     *
+     * @param row        Row number.
+     * @param seatNumber Seat number (1-based column index).
+     * @return A new set of the seat's features.
+     */
+    public Set<SeatFeature> featuresOf(int row, int seatNumber) {
+        Set<SeatFeature> features = EnumSet.noneOf(SeatFeature.class);
+        if (seatNumber == 1 || seatNumber == letters.length) {
+            features.add(SeatFeature.WINDOW_SEAT);
+        }
+        if (isExitRow(row) || getCabinClass(row) != CabinClass.ECONOMY) {
+            features.add(SeatFeature.MORE_LEGROOM);
+        }
+        if (isExitRow(row) || isExitRow(row - 1) || isExitRow(row + 1)) {
+            features.add(SeatFeature.CLOSE_TO_EXIT);
+        }
+        return features;
+    }
+
+    /**
+     * @return The label of a seat, e.g. "12H".
+     */
+    public String seatLabel(int row, int seatNumber) {
+        return row + String.valueOf(letters[seatNumber - 1]);
+    }
+
+    public String getColumns() {
+        return columns;
+    }
+
+    public int getColumnCount() {
+        return letters.length;
+    }
+
+    public char getColumnLetter(int column) {
+        return letters[column];
+    }
+
+    /**
+     * @return The position of a column across the cabin, counting every aisle
+     *         as one seat, so seats on both sides of an aisle are two apart.
+     */
+    public int getPosition(int column) {
+        return positions[column];
+    }
+
+    /**
+     * @return A mask with bit {@code i} set if there is an aisle between
+     *         columns {@code i} and {@code i + 1}.
+     */
+    public long getAisleMask() {
+        return aisles;
+    }
+
+    public int getFirstRow() {
+        return firstRow;
+    }
+
+    public int getLastRow() {
+        return firstRow + cabinClasses.length - 1;
+    }
+
+    public int getRowCount() {
+        return cabinClasses.length;
+    }
+
+    public CabinClass getCabinClass(int row) {
+        return cabinClasses[row - firstRow];
+    }
+
+    public boolean isExitRow(int row) {
+        return hasRow(row) && exitRows[row - firstRow];
+    }
+
+    private boolean hasRow(int row) {
+        return row >= firstRow && row - firstRow < cabinClasses.length;
+    }
+}
@@ -5,18 +5,28 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.List;
 
 @Entity
-@Table(name = "flights")
+@Table(name = "flights", indexes = {
+        // Keyset pagination orders (see FlightSortOrder).
+        @Index(name = "idx_flights_departure", columnList = "departure_date, departure_time, id"),
+        @Index(name = "idx_flights_price", columnList = "price, id")
+})
+// Flights hardly ever change once created; seats are cached as seat maps instead (see SeatMapCache).
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "flights")
 @Setter
 @Getter
 public class Flight {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sequence ids (not IDENTITY), so Hibernate can batch inserts.
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "flight_ids")
+    @SequenceGenerator(name = "flight_ids", sequenceName = "flights_seq", allocationSize = 50)
     @JsonFormat(shape = JsonFormat.Shape.NUMBER_INT)
     private Long id;
 
@@ -44,6 +54,12 @@ public class Flight {
     @JsonFormat(shape = JsonFormat.Shape.NUMBER_FLOAT)
     private Double price;
 
+    // Null for flights created before cabin layouts; their seat maps are built from the seats alone.
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private AircraftType aircraftType;
+
     @OneToMany(mappedBy = "flight", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JsonIgnore
     private List<Seat> seats;
@@ -2,19 +2,24 @@ package FlightFinder.Backend.model;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
 
 import java.util.Set;
 
+// Not in the second-level cache: the seats of a flight are cached as its seat
+// map (see SeatMapCache), which also knows about holds and occupancy versions.
 @Entity
 @Table(name = "seats")
 @Setter
 @Getter
 public class Seat {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sequence ids (not IDENTITY), so Hibernate can batch inserts.
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seat_ids")
+    @SequenceGenerator(name = "seat_ids", sequenceName = "seats_seq", allocationSize = 50)
     @JsonFormat(shape = JsonFormat.Shape.NUMBER_INT)
     private Long id;
 
@@ -30,15 +35,23 @@ public class Seat {
     @JsonFormat(shape = JsonFormat.Shape.BOOLEAN)
     private boolean isOccupied;
 
-    @ElementCollection(targetClass = SeatFeature.class)
-    // creates a separate table seat_features to store seat attributes.
-    @CollectionTable(name = "seat_features", joinColumns = @JoinColumn(name = "seat_id"))
-    @Enumerated(EnumType.STRING) // stores enum values as readable text instead of numbers.
-    @Column(name = "feature")
+    // Stored as a bitmask column, so loading a seat loads its features too.
+    @Convert(converter = SeatFeaturesConverter.class)
+    @Column(name = "features", nullable = false)
     @JsonFormat(shape = JsonFormat.Shape.STRING)
     private Set<SeatFeature> features;
 
-    @ManyToOne
+    // Display label, e.g. "12H" (see CabinLayout#seatLabel) or "C04" for flights
+    // without a layout; only set on the seats a SeatMap hands out.
+    @Transient
+    private String label;
+
+    @Version // optimistic locking when seats are booked
+    @Column(nullable = false)
+    @JsonIgnore
+    private long version;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "flight_id", nullable = false)
     @JsonBackReference
     private Flight flight;
@@ -1,7 +1,48 @@
 package FlightFinder.Backend.model;
 
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Features a seat can have. A set of features is stored as a bitmask with bit
+ * {@link #ordinal()} per feature, so new features must only ever be appended.
+ */
 public enum SeatFeature {
     WINDOW_SEAT,
     MORE_LEGROOM,
-    CLOSE_TO_EXIT
+    CLOSE_TO_EXIT;
+
+    private static final SeatFeature[] VALUES = values();
+
+    /**
+     * Converts features into a bitmask. Duplicates are ignored.
+     *
+     * @param features The features to convert (may be null).
+     * @return The feature bitmask.
+     */
+    public static int toMask(Collection<SeatFeature> features) {
+        int mask = 0;
+        if (features != null) {
+            for (SeatFeature feature : features) {
+                mask |= 1 << feature.ordinal();
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Converts a bitmask created by {@link #toMask} back into features.
+     *
+     * @param mask The feature bitmask.
+     * @return A new set of the features.
+     */
+    public static Set<SeatFeature> fromMask(int mask) {
+        Set<SeatFeature> features = EnumSet.noneOf(SeatFeature.class);
+        while (mask != 0) {
+            features.add(VALUES[Integer.numberOfTrailingZeros(mask)]);
+            mask &= mask - 1;
+        }
+        return features;
+    }
 }
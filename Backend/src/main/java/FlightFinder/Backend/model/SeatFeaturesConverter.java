@@ -0,0 +1,24 @@
+package FlightFinder.Backend.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.Set;
+
+/**
+ * Stores a seat's features as one integer bitmask column, see
+ * {@link SeatFeature#toMask}.
+ */
+@Converter
+public class SeatFeaturesConverter implements AttributeConverter<Set<SeatFeature>, Integer> {
+
+    @Override
+    public Integer convertToDatabaseColumn(Set<SeatFeature> features) {
+        return SeatFeature.toMask(features);
+    }
+
+    @Override
+    public Set<SeatFeature> convertToEntityAttribute(Integer mask) {
+        return SeatFeature.fromMask(mask == null ? 0 : mask);
+    }
+}
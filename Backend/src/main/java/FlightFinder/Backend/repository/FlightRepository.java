@@ -2,9 +2,31 @@ package FlightFinder.Backend.repository;
 
 import FlightFinder.Backend.model.Flight;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
-public interface FlightRepository extends JpaRepository<Flight, Long>, JpaSpecificationExecutor<Flight> {
+public interface FlightRepository extends JpaRepository<Flight, Long>, JpaSpecificationExecutor<Flight>,
+        FlightRepositoryCustom {
+
+    /**
+     * Loads the seats of several flights in a single query, each with the ID and
+     * the aircraft type of its flight.
+     *
+     * @param flightIds The IDs of the flights.
+     * @return Triples of flight ID, aircraft type (may be null) and seat.
+     */
+    @Query("select f.id, f.aircraftType, s from Seat s join s.flight f where f.id in :flightIds")
+    List<Object[]> findSeatsByFlightIds(@Param("flightIds") Collection<Long> flightIds);
+
+    /**
+     * @return The highest flight ID, or null if there are no flights.
+     */
+    @Query("select max(f.id) from Flight f")
+    Long findMaxId();
 }
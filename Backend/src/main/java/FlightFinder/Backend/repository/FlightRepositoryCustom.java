@@ -0,0 +1,36 @@
+package FlightFinder.Backend.repository;
+
+import FlightFinder.Backend.model.Flight;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface FlightRepositoryCustom {
+
+    /**
+     * Streams the flights matching a specification straight from the JDBC
+     * cursor. Flights are detached as they are read, so the persistence context
+     * does not grow with the result. Must be called inside a transaction and the
+     * stream must be closed.
+     *
+     * @param spec      Specification the flights must match.
+     * @param sort      Order of the results.
+     * @param fetchSize Number of rows fetched from the database per round trip.
+     * @return Stream of matching flights.
+     */
+    Stream<Flight> streamAll(Specification<Flight> spec, Sort sort, int fetchSize);
+
+    /**
+     * Finds the first flights matching a specification through the query
+     * cache: a repeated query is answered with the cached flight IDs and the
+     * flights from the second-level cache, until the flights table is written.
+     *
+     * @param spec  Specification the flights must match.
+     * @param sort  Order of the results.
+     * @param limit Maximum number of flights to return.
+     * @return The matching flights.
+     */
+    List<Flight> findAllCached(Specification<Flight> spec, Sort sort, int limit);
+}
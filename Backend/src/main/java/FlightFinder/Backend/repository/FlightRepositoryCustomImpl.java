@@ -0,0 +1,59 @@
+package FlightFinder.Backend.repository;
+
+import FlightFinder.Backend.model.Flight;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public class FlightRepositoryCustomImpl implements FlightRepositoryCustom {
+
+    private static final String PAGE_CACHE_REGION = "flight-pages";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Stream<Flight> streamAll(Specification<Flight> spec, Sort sort, int fetchSize) {
+        return entityManager.createQuery(criteria(spec, sort))
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()
+                .map(flight -> {
+                    entityManager.detach(flight);
+                    return flight;
+                });
+    }
+
+    @Override
+    public List<Flight> findAllCached(Specification<Flight> spec, Sort sort, int limit) {
+        return entityManager.createQuery(criteria(spec, sort))
+                .setMaxResults(limit)
+                .setHint(HibernateHints.HINT_CACHEABLE, true)
+                .setHint(HibernateHints.HINT_CACHE_REGION, PAGE_CACHE_REGION)
+                .getResultList();
+    }
+
+    private CriteriaQuery<Flight> criteria(Specification<Flight> spec, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Flight> query = cb.createQuery(Flight.class);
+        Root<Flight> root = query.from(Flight.class);
+
+        query.select(root);
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        return query;
+    }
+}
@@ -0,0 +1,67 @@
+package FlightFinder.Backend.repository;
+
+import FlightFinder.Backend.model.Flight;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+public class FlightSpecifications {
+
+    private FlightSpecifications() {
+    }
+
+    /**
+     * Builds a specification matching flights against the search filters. Every
+     * filter is optional; locations match case-insensitively on a substring.
+     *
+     * @param startLocation Starting location for the flight.
+     * @param destination   Destination of the flight.
+     * @param departureDate Date the flight departs.
+     * @param departureTime Time the flight departs.
+     * @param minPrice      Minimum price of the flight.
+     * @param maxPrice      Maximum price of the flight.
+     * @return Specification combining all given filters.
+     */
+    public static Specification<Flight> withFilters(
+            String startLocation,
+            String destination,
+            LocalDate departureDate,
+            LocalTime departureTime,
+            Double minPrice,
+            Double maxPrice) {
+        Specification<Flight> spec = Specification.where(null);
+
+        if (startLocation != null) {
+            spec = spec.and((root, query, cb) -> cb.like(cb.lower(root.get("startLocation")),
+                    "%" + startLocation.toLowerCase() + "%"));
+        }
+
+        if (destination != null) {
+            spec = spec.and((root, query, cb) -> cb.like(cb.lower(root.get("destination")),
+                    "%" + destination.toLowerCase() + "%"));
+        }
+
+        if (departureDate != null) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("departureDate"), departureDate));
+        }
+
+        if (departureTime != null) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("departureTime"), departureTime));
+        }
+
+        if (minPrice != null || maxPrice != null) {
+            spec = spec.and((root, query, cb) -> {
+                if (minPrice != null && maxPrice != null) {
+                    return cb.between(root.get("price"), minPrice, maxPrice);
+                } else if (minPrice != null) {
+                    return cb.greaterThanOrEqualTo(root.get("price"), minPrice);
+                } else {
+                    return cb.lessThanOrEqualTo(root.get("price"), maxPrice);
+                }
+            });
+        }
+
+        return spec;
+    }
+}
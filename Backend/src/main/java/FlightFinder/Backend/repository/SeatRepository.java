@@ -0,0 +1,9 @@
+package FlightFinder.Backend.repository;
+
+import FlightFinder.Backend.model.Seat;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SeatRepository extends JpaRepository<Seat, Long> {
+}
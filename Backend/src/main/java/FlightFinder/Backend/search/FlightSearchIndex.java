@@ -0,0 +1,495 @@
+package FlightFinder.Backend.search;
+
+import FlightFinder.Backend.model.Flight;
+import FlightFinder.Backend.repository.FlightRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory search index over the flight catalog.
+ *
+ * Locations are matched through a trigram index over the distinct (lower-case)
+ * start locations and destinations, departure dates and prices through arrays
+ * of flight positions sorted by that value. Each indexed filter produces a bit
+ * set of matching flights and the filters are combined with bit set
+ * intersections, so a search never scans the whole catalog.
+ *
+ * The index is built from the database on first use and kept up to date by
+ * {@link #add(Flight)} and {@link #addAll(Collection)}; each change bumps the
+ * catalog version. Added flights are not indexed right away but kept in a short
+ * list that searches scan. Only once more than {@code max(256, 4 * sqrt(N))}
+ * flights are waiting is the index rebuilt with them, so adding one flight does
+ * not re-sort and re-index a catalog of {@code N} flights.
+ *
+ * Flights written by other instances or directly in the database are not
+ * added that way. Once per {@code reconcileInterval} the first search
+ * compares the number of flights and the highest flight ID with the database
+ * and reloads the index if they differ, which bounds how long such flights
+ * stay unseen like the {@code flight-pages} cache region does for pages.
+ * Changes to existing flights made outside this instance are not detected.
+ */
+@Component
+public class FlightSearchIndex {
+
+    /** Number of added flights that can always wait for the next rebuild. */
+    private static final int MIN_PENDING = 256;
+
+    private static final Flight[] NO_FLIGHTS = new Flight[0];
+
+    private final FlightRepository flightRepository;
+    private final long reconcileNanos;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final AtomicLong version = new AtomicLong();
+
+    private volatile Catalog catalog;
+
+    public FlightSearchIndex(FlightRepository flightRepository,
+            @Value("${flightfinder.flight-index.reconcile-interval:PT10M}") Duration reconcileInterval) {
+        this.flightRepository = flightRepository;
+        this.reconcileNanos = reconcileInterval.toNanos();
+    }
+
+    /**
+     * Finds the flights matching all given filters, ordered by ID. Every filter
+     * is optional and behaves like the corresponding
+     * {@link FlightFinder.Backend.repository.FlightSpecifications} predicate.
+     *
+     * @param startLocation Substring of the starting location (case-insensitive).
+     * @param destination   Substring of the destination (case-insensitive).
+     * @param departureDate Date the flight departs.
+     * @param departureTime Time the flight departs.
+     * @param minPrice      Minimum price of the flight (inclusive).
+     * @param maxPrice      Maximum price of the flight (inclusive).
+     * @return List of flights that match the provided filters.
+     */
+    public List<Flight> search(
+            String startLocation,
+            String destination,
+            LocalDate departureDate,
+            LocalTime departureTime,
+            Double minPrice,
+            Double maxPrice) {
+        Catalog current = ensureLoaded();
+        String start = startLocation == null ? null : startLocation.toLowerCase();
+        String end = destination == null ? null : destination.toLowerCase();
+
+        List<Flight> indexed = current.indexed().search(start, end, departureDate, departureTime, minPrice,
+                maxPrice);
+        if (current.pending().length == 0) {
+            return indexed;
+        }
+
+        // Merge the matching flights that wait for the next rebuild, keeping the ID order.
+        List<Flight> result = new ArrayList<>(indexed.size());
+        int next = 0;
+        for (Flight flight : current.pending()) {
+            if (!matches(flight, start, end, departureDate, departureTime, minPrice, maxPrice)) {
+                continue;
+            }
+            while (next < indexed.size() && indexed.get(next).getId() < flight.getId()) {
+                result.add(indexed.get(next++));
+            }
+            result.add(flight);
+        }
+        result.addAll(indexed.subList(next, indexed.size()));
+        return result;
+    }
+
+    /**
+     * Adds a newly created flight to the index.
+     *
+     * @param flight The saved flight.
+     */
+    public void add(Flight flight) {
+        addAll(List.of(flight));
+    }
+
+    /**
+     * Adds newly created flights to the index. They are searchable right away,
+     * but only indexed with the next rebuild, see the class description; a
+     * flight that is indexed already is replaced by rebuilding at once. Does
+     * nothing if the index has not been loaded yet, because the first search
+     * reads the flights from the database anyway.
+     *
+     * @param flights The saved flights.
+     */
+    public void addAll(Collection<Flight> flights) {
+        writeLock.lock();
+        try {
+            Catalog current = catalog;
+            if (current == null) {
+                return;
+            }
+            Map<Long, Flight> pending = new TreeMap<>();
+            for (Flight flight : current.pending()) {
+                pending.put(flight.getId(), flight);
+            }
+            boolean replaces = false;
+            for (Flight flight : flights) {
+                pending.put(flight.getId(), copyOf(flight));
+                replaces |= current.indexed().contains(flight.getId());
+            }
+
+            int size = current.indexed().flights.length;
+            if (replaces || pending.size() > Math.max(MIN_PENDING, 4 * (int) Math.sqrt(size))) {
+                Map<Long, Flight> byId = new HashMap<>();
+                for (Flight flight : current.indexed().flights) {
+                    byId.put(flight.getId(), flight);
+                }
+                byId.putAll(pending);
+                catalog = new Catalog(new Snapshot(byId.values()), NO_FLIGHTS, current.checkedAt());
+            } else {
+                catalog = new Catalog(current.indexed(), pending.values().toArray(NO_FLIGHTS), current.checkedAt());
+            }
+            version.incrementAndGet();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the catalog version, loading or reconciling the index if
+     * necessary. Read it
+     * before searching: the flights found afterwards are at least as new.
+     *
+     * @return The catalog version, increased every time the indexed flights
+     *         change.
+     */
+    public long getVersion() {
+        ensureLoaded();
+        return version.get();
+    }
+
+    private Catalog ensureLoaded() {
+        Catalog current = catalog;
+        if (current != null && System.nanoTime() - current.checkedAt() < reconcileNanos) {
+            return current;
+        }
+        if (current == null) {
+            writeLock.lock();
+        } else if (!writeLock.tryLock()) {
+            // Another thread is changing or reconciling the index; the current catalog will do meanwhile.
+            return current;
+        }
+        try {
+            if (catalog == null) {
+                catalog = load();
+            } else if (catalog == current) {
+                catalog = reconcile(current);
+            }
+            return catalog;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Reloads the index if the database has a different number of flights or a
+     * different highest flight ID than the catalog.
+     */
+    private Catalog reconcile(Catalog current) {
+        long count = flightRepository.count();
+        Long maxId = flightRepository.findMaxId();
+        if (count == current.size() && Objects.equals(maxId, current.maxId())) {
+            return new Catalog(current.indexed(), current.pending(), System.nanoTime());
+        }
+        return load();
+    }
+
+    private Catalog load() {
+        List<Flight> flights = new ArrayList<>();
+        for (Flight flight : flightRepository.findAll()) {
+            flights.add(copyOf(flight));
+        }
+        version.incrementAndGet();
+        return new Catalog(new Snapshot(flights), NO_FLIGHTS, System.nanoTime());
+    }
+
+    /**
+     * Copies the searchable fields of a flight, so the index does not keep the
+     * flight's seats reachable.
+     */
+    private static Flight copyOf(Flight flight) {
+        Flight copy = new Flight();
+        copy.setId(flight.getId());
+        copy.setFlightNumber(flight.getFlightNumber());
+        copy.setStartLocation(flight.getStartLocation());
+        copy.setDestination(flight.getDestination());
+        copy.setDepartureDate(flight.getDepartureDate());
+        copy.setDepartureTime(flight.getDepartureTime());
+        copy.setPrice(flight.getPrice());
+        copy.setAircraftType(flight.getAircraftType());
+        return copy;
+    }
+
+    /**
+     * Checks a flight that is not indexed yet against the filters, with the
+     * locations in lower case.
+     */
+    private static boolean matches(Flight flight, String startLocation, String destination,
+            LocalDate departureDate, LocalTime departureTime, Double minPrice, Double maxPrice) {
+        return (startLocation == null || flight.getStartLocation().toLowerCase().contains(startLocation))
+                && (destination == null || flight.getDestination().toLowerCase().contains(destination))
+                && (departureDate == null || departureDate.equals(flight.getDepartureDate()))
+                && (departureTime == null || departureTime.equals(flight.getDepartureTime()))
+                && (minPrice == null || flight.getPrice() >= minPrice)
+                && (maxPrice == null || flight.getPrice() <= maxPrice);
+    }
+
+    private static BitSet intersect(BitSet matches, BitSet filter) {
+        if (matches == null) {
+            return filter;
+        }
+        matches.and(filter);
+        return matches;
+    }
+
+    /**
+     * One version of the catalog: the indexed flights and the flights added
+     * since, ordered by ID, and when it was last compared with the database
+     * ({@link System#nanoTime()}).
+     */
+    private record Catalog(Snapshot indexed, Flight[] pending, long checkedAt) {
+
+        int size() {
+            return indexed.flights.length + pending.length;
+        }
+
+        /**
+         * @return The highest flight ID, or null if the catalog is empty.
+         */
+        Long maxId() {
+            Long maxId = indexed.flights.length == 0 ? null : indexed.flights[indexed.flights.length - 1].getId();
+            if (pending.length > 0 && (maxId == null || pending[pending.length - 1].getId() > maxId)) {
+                maxId = pending[pending.length - 1].getId();
+            }
+            return maxId;
+        }
+    }
+
+    /**
+     * Immutable index over a set of flights.
+     */
+    private static final class Snapshot {
+        private final Flight[] flights;
+        private final LocationIndex startLocations;
+        private final LocationIndex destinations;
+        private final int[] byDate;
+        private final LocalDate[] sortedDates;
+        private final int[] byPrice;
+        private final double[] sortedPrices;
+
+        Snapshot(Collection<Flight> catalog) {
+            flights = catalog.toArray(new Flight[0]);
+            Arrays.sort(flights, Comparator.comparing(Flight::getId));
+
+            startLocations = new LocationIndex(flights, true);
+            destinations = new LocationIndex(flights, false);
+
+            byDate = sortedPositions(Comparator.comparing(i -> flights[i].getDepartureDate()));
+            sortedDates = new LocalDate[flights.length];
+            for (int i = 0; i < byDate.length; i++) {
+                sortedDates[i] = flights[byDate[i]].getDepartureDate();
+            }
+
+            byPrice = sortedPositions(Comparator.comparingDouble(i -> flights[i].getPrice()));
+            sortedPrices = new double[flights.length];
+            for (int i = 0; i < byPrice.length; i++) {
+                sortedPrices[i] = flights[byPrice[i]].getPrice();
+            }
+        }
+
+        /**
+         * Finds the indexed flights matching the filters, ordered by ID, with the
+         * locations in lower case.
+         */
+        List<Flight> search(String startLocation, String destination, LocalDate departureDate,
+                LocalTime departureTime, Double minPrice, Double maxPrice) {
+            BitSet matches = null;
+            if (startLocation != null) {
+                matches = intersect(matches, startLocations.match(startLocation));
+            }
+            if (destination != null) {
+                matches = intersect(matches, destinations.match(destination));
+            }
+            if (departureDate != null) {
+                matches = intersect(matches, dateRange(departureDate));
+            }
+            // Price ranges are wide, so the sorted price index only pays off when no
+            // other filter has narrowed the candidates down already.
+            boolean checkPrice = matches != null;
+            if (matches == null && (minPrice != null || maxPrice != null)) {
+                matches = priceRange(minPrice, maxPrice);
+            }
+            if (matches == null) {
+                matches = new BitSet(flights.length);
+                matches.set(0, flights.length);
+            }
+
+            List<Flight> result = new ArrayList<>(matches.cardinality());
+            for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+                Flight flight = flights[i];
+                // Departure times are too selective to be worth an index of their own.
+                if (departureTime != null && !departureTime.equals(flight.getDepartureTime())) {
+                    continue;
+                }
+                if (checkPrice && ((minPrice != null && flight.getPrice() < minPrice)
+                        || (maxPrice != null && flight.getPrice() > maxPrice))) {
+                    continue;
+                }
+                result.add(flight);
+            }
+            return result;
+        }
+
+        boolean contains(Long id) {
+            int low = 0;
+            int high = flights.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int cmp = flights[mid].getId().compareTo(id);
+                if (cmp == 0) {
+                    return true;
+                }
+                if (cmp < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return false;
+        }
+
+        BitSet dateRange(LocalDate date) {
+            int from = lowerBound(sortedDates, date, false);
+            int to = lowerBound(sortedDates, date, true);
+            return positions(byDate, from, to);
+        }
+
+        BitSet priceRange(Double minPrice, Double maxPrice) {
+            int from = minPrice == null ? 0 : lowerBound(sortedPrices, minPrice, false);
+            int to = maxPrice == null ? sortedPrices.length : lowerBound(sortedPrices, maxPrice, true);
+            return positions(byPrice, from, to);
+        }
+
+        private int[] sortedPositions(Comparator<Integer> comparator) {
+            Integer[] positions = new Integer[flights.length];
+            for (int i = 0; i < positions.length; i++) {
+                positions[i] = i;
+            }
+            Arrays.sort(positions, comparator);
+            return Arrays.stream(positions).mapToInt(Integer::intValue).toArray();
+        }
+
+        private BitSet positions(int[] order, int from, int to) {
+            BitSet result = new BitSet(flights.length);
+            for (int i = from; i < to; i++) {
+                result.set(order[i]);
+            }
+            return result;
+        }
+
+        /**
+         * Returns the first index whose value is not less than (or, with
+         * {@code inclusive}, greater than) the given key.
+         */
+        private static <T extends Comparable<T>> int lowerBound(T[] sorted, T key, boolean inclusive) {
+            int low = 0;
+            int high = sorted.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                int cmp = sorted[mid].compareTo(key);
+                if (cmp < 0 || (inclusive && cmp == 0)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private static int lowerBound(double[] sorted, double key, boolean inclusive) {
+            int low = 0;
+            int high = sorted.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (sorted[mid] < key || (inclusive && sorted[mid] == key)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    /**
+     * Trigram index over the distinct values of one location column.
+     */
+    private static final class LocationIndex {
+        private final String[] names;
+        private final BitSet[] flightsByName;
+        private final Map<String, BitSet> namesByTrigram = new HashMap<>();
+        private final int flightCount;
+
+        LocationIndex(Flight[] flights, boolean start) {
+            flightCount = flights.length;
+            Map<String, BitSet> flightsByLocation = new HashMap<>();
+            for (int i = 0; i < flights.length; i++) {
+                String location = start ? flights[i].getStartLocation() : flights[i].getDestination();
+                flightsByLocation.computeIfAbsent(location.toLowerCase(), l -> new BitSet(flightCount)).set(i);
+            }
+
+            names = flightsByLocation.keySet().toArray(new String[0]);
+            flightsByName = new BitSet[names.length];
+            for (int n = 0; n < names.length; n++) {
+                flightsByName[n] = flightsByLocation.get(names[n]);
+                for (int i = 0; i + 3 <= names[n].length(); i++) {
+                    namesByTrigram.computeIfAbsent(names[n].substring(i, i + 3), t -> new BitSet()).set(n);
+                }
+            }
+        }
+
+        /**
+         * Returns the flights whose location contains the given lower-case
+         * substring.
+         */
+        BitSet match(String query) {
+            BitSet candidates;
+            if (query.length() < 3) {
+                // Too short for trigrams; the distinct names are few enough to scan.
+                candidates = new BitSet(names.length);
+                candidates.set(0, names.length);
+            } else {
+                candidates = null;
+                for (int i = 0; i + 3 <= query.length(); i++) {
+                    BitSet posting = namesByTrigram.get(query.substring(i, i + 3));
+                    if (posting == null) {
+                        return new BitSet(flightCount);
+                    }
+                    if (candidates == null) {
+                        candidates = (BitSet) posting.clone();
+                    } else {
+                        candidates.and(posting);
+                    }
+                }
+            }
+
+            BitSet result = new BitSet(flightCount);
+            for (int n = candidates.nextSetBit(0); n >= 0; n = candidates.nextSetBit(n + 1)) {
+                // Trigrams can match out of order, so confirm the substring.
+                if (names[n].contains(query)) {
+                    result.or(flightsByName[n]);
+                }
+            }
+            return result;
+        }
+    }
+}
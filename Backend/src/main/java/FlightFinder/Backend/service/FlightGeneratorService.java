@@ -0,0 +1,7 @@
+package FlightFinder.Backend.service;
+
+import FlightFinder.Backend.dto.GenerationReport;
+
+public interface FlightGeneratorService {
+    GenerationReport generateFlights(int count, int rows, int seatsPerRow, double occupancy, long seed);
+}
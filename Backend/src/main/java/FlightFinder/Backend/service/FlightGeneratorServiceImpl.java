@@ -0,0 +1,281 @@
+package FlightFinder.Backend.service;
+
+import FlightFinder.Backend.dto.GenerationReport;
+import FlightFinder.Backend.model.Flight;
+import FlightFinder.Backend.model.Seat;
+import FlightFinder.Backend.model.SeatFeature;
+import FlightFinder.Backend.search.FlightSearchIndex;
+import FlightFinder.Backend.service.seatFinder.SeatMap;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.postgresql.PGConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.sql.Date;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.*;
+
+/**
+ * Generates large numbers of random flights for capacity tests.
+ *
+ * The generated data only depends on the parameters and the seed. Rows bypass
+ * Hibernate: IDs are reserved in blocks from the same pooled sequences the
+ * entities use, and the rows are written with {@code COPY} on PostgreSQL or
+ * with JDBC batch inserts on other databases, one transaction per chunk.
+ */
+@Service
+public class FlightGeneratorServiceImpl implements FlightGeneratorService {
+
+    private static final Logger log = LoggerFactory.getLogger(FlightGeneratorServiceImpl.class);
+
+    /** Must match the allocationSize of the ID generators of Flight and Seat. */
+    private static final int ID_BLOCK_SIZE = 50;
+    private static final int SEATS_PER_CHUNK = 100_000;
+    private static final int BATCH_SIZE = 500;
+    private static final int MAX_ROWS = 99;
+    private static final int MAX_COUNT = 100_000;
+    private static final List<String> CITIES = List.of("Liberty City", "Vice City", "Los Santos", "San Fierro",
+            "Las Venturas");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final FlightSearchIndex flightSearchIndex;
+    private final SessionFactory sessionFactory;
+
+    public FlightGeneratorServiceImpl(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            FlightSearchIndex flightSearchIndex, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.flightSearchIndex = flightSearchIndex;
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+    }
+
+    /**
+     * Inserts random flights with a fully seated cabin each.
+     *
+     * @param count       Number of flights to generate (at most 100000).
+     * @param rows        Number of seat rows per flight (numbered from 1).
+     * @param seatsPerRow Number of seats in each row.
+     * @param occupancy   Probability of a seat being occupied (0 to 1).
+     * @param seed        Seed of the random generator; the same seed produces
+     *                    the same flights.
+     * @return Row counts and throughput of the run.
+     * @throws IllegalArgumentException if a parameter is out of range.
+     */
+    @Override
+    public GenerationReport generateFlights(int count, int rows, int seatsPerRow, double occupancy, long seed) {
+        if (count < 1 || count > MAX_COUNT) {
+            throw new IllegalArgumentException("count must be between 1 and " + MAX_COUNT);
+        }
+        if (rows < 1 || rows > MAX_ROWS) {
+            throw new IllegalArgumentException("rows must be between 1 and " + MAX_ROWS);
+        }
+        if (seatsPerRow < 1 || seatsPerRow > SeatMap.MAX_ROW_WIDTH) {
+            throw new IllegalArgumentException("seatsPerRow must be between 1 and " + SeatMap.MAX_ROW_WIDTH);
+        }
+        if (occupancy < 0 || occupancy > 1) {
+            throw new IllegalArgumentException("occupancy must be between 0 and 1");
+        }
+
+        boolean postgres = Boolean.TRUE.equals(
+                jdbcTemplate.execute((ConnectionCallback<Boolean>) c -> c.isWrapperFor(PGConnection.class)));
+        Random random = new Random(seed);
+        int flightsPerChunk = Math.max(1, SEATS_PER_CHUNK / (rows * seatsPerRow));
+        long seatCount = 0;
+        long featureCount = 0;
+
+        long start = System.nanoTime();
+        for (int offset = 0; offset < count; offset += flightsPerChunk) {
+            List<Flight> flights = new ArrayList<>();
+            for (int i = offset; i < Math.min(count, offset + flightsPerChunk); i++) {
+                flights.add(randomFlight(random, rows, seatsPerRow, occupancy));
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                assignIds(flights, postgres);
+                if (postgres) {
+                    copy(flights);
+                } else {
+                    batchInsert(flights);
+                }
+            });
+            flightSearchIndex.addAll(flights);
+            // The rows are written with JDBC, which Hibernate does not see, so
+            // cached filter results would not include the new flights.
+            sessionFactory.getCache().evictQueryRegions();
+
+            for (Flight flight : flights) {
+                seatCount += flight.getSeats().size();
+                for (Seat seat : flight.getSeats()) {
+                    featureCount += seat.getFeatures().size();
+                }
+            }
+        }
+        long nanos = System.nanoTime() - start;
+
+        long totalRows = count + seatCount;
+        double rowsPerSecond = totalRows / Math.max(nanos / 1e9, 1e-9);
+        String method = postgres ? "COPY" : "JDBC_BATCH";
+        log.info("Generated {} flights, {} seats and {} seat features with {} in {} ms ({} rows/s)",
+                count, seatCount, featureCount, method, nanos / 1_000_000, Math.round(rowsPerSecond));
+        return new GenerationReport(count, seatCount, featureCount, method, nanos / 1_000_000, rowsPerSecond);
+    }
+
+    /**
+     * Creates a random flight the same way {@link FlightService#addFlight()}
+     * does, with a cabin of the given size. Window seats are the first and last
+     * seat of each row, the first third of the rows has more legroom and the
+     * middle seats are close to the exit.
+     */
+    private static Flight randomFlight(Random random, int rows, int seatsPerRow, double occupancy) {
+        Flight flight = new Flight();
+        flight.setFlightNumber(String.format("AA%06X", random.nextInt(1 << 24)));
+        int startIndex = random.nextInt(CITIES.size());
+        int destinationIndex = (startIndex + 1 + random.nextInt(CITIES.size() - 1)) % CITIES.size();
+        flight.setStartLocation(CITIES.get(startIndex));
+        flight.setDestination(CITIES.get(destinationIndex));
+        flight.setDepartureDate(LocalDate.of(2025, 1 + random.nextInt(12), 1 + random.nextInt(28)));
+        flight.setDepartureTime(LocalTime.of(random.nextInt(24), random.nextInt(60)));
+        flight.setPrice(100 + random.nextDouble() * 400);
+
+        List<Seat> seats = new ArrayList<>(rows * seatsPerRow);
+        int legroomRows = Math.max(1, rows / 3);
+        for (int row = 0; row < rows; row++) {
+            for (int number = 1; number <= seatsPerRow; number++) {
+                Seat seat = new Seat();
+                seat.setRow(String.valueOf(row + 1));
+                seat.setSeatNumber(number);
+                seat.setOccupied(random.nextDouble() < occupancy);
+
+                Set<SeatFeature> features = EnumSet.noneOf(SeatFeature.class);
+                if (number == 1 || number == seatsPerRow) {
+                    features.add(SeatFeature.WINDOW_SEAT);
+                }
+                if (row < legroomRows) {
+                    features.add(SeatFeature.MORE_LEGROOM);
+                }
+                if (Math.abs(2 * number - (seatsPerRow + 1)) <= 1) {
+                    features.add(SeatFeature.CLOSE_TO_EXIT);
+                }
+                seat.setFeatures(features);
+                seat.setFlight(flight);
+                seats.add(seat);
+            }
+        }
+        flight.setSeats(seats);
+        return flight;
+    }
+
+    private void assignIds(List<Flight> flights, boolean postgres) {
+        PrimitiveIterator.OfLong flightIds = reserveIds("flights_seq", flights.size(), postgres);
+        int seatCount = flights.stream().mapToInt(flight -> flight.getSeats().size()).sum();
+        PrimitiveIterator.OfLong seatIds = reserveIds("seats_seq", seatCount, postgres);
+        for (Flight flight : flights) {
+            flight.setId(flightIds.nextLong());
+            for (Seat seat : flight.getSeats()) {
+                seat.setId(seatIds.nextLong());
+            }
+        }
+    }
+
+    /**
+     * Reserves IDs from a pooled sequence. Every sequence value {@code v} stands
+     * for the block {@code v - 49 .. v}, exactly as Hibernate's pooled optimizer
+     * interprets it, so the reserved IDs never collide with entity IDs.
+     */
+    private PrimitiveIterator.OfLong reserveIds(String sequence, int count, boolean postgres) {
+        long[] ids = new long[count];
+        int reserved = 0;
+        while (reserved < count) {
+            int blocks = (count - reserved + ID_BLOCK_SIZE - 1) / ID_BLOCK_SIZE;
+            List<Long> values;
+            if (postgres) {
+                values = jdbcTemplate.queryForList("select nextval(?) from generate_series(1, ?)", Long.class,
+                        sequence, blocks);
+            } else {
+                values = new ArrayList<>(blocks);
+                for (int i = 0; i < blocks; i++) {
+                    values.add(jdbcTemplate.queryForObject("select nextval('" + sequence + "')", Long.class));
+                }
+            }
+            for (long value : values) {
+                for (long id = Math.max(1, value - ID_BLOCK_SIZE + 1); id <= value && reserved < count; id++) {
+                    ids[reserved++] = id;
+                }
+            }
+        }
+        return Arrays.stream(ids).iterator();
+    }
+
+    private void copy(List<Flight> flights) {
+        StringBuilder flightRows = new StringBuilder();
+        StringBuilder seatRows = new StringBuilder();
+        for (Flight flight : flights) {
+            flightRows.append(flight.getId()).append(',')
+                    .append(flight.getFlightNumber()).append(',')
+                    .append(flight.getStartLocation()).append(',')
+                    .append(flight.getDestination()).append(',')
+                    .append(flight.getDepartureDate()).append(',')
+                    .append(flight.getDepartureTime()).append(',')
+                    .append(flight.getPrice()).append('\n');
+            for (Seat seat : flight.getSeats()) {
+                seatRows.append(seat.getId()).append(',')
+                        .append(seat.getRow()).append(',')
+                        .append(seat.getSeatNumber()).append(',')
+                        .append(seat.isOccupied()).append(",0,")
+                        .append(SeatFeature.toMask(seat.getFeatures())).append(',')
+                        .append(flight.getId()).append('\n');
+            }
+        }
+
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            var copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+            try {
+                copyManager.copyIn("COPY flights (id, flight_number, start_location, destination, departure_date,"
+                        + " departure_time, price) FROM STDIN WITH (FORMAT csv)",
+                        new StringReader(flightRows.toString()));
+                copyManager.copyIn("COPY seats (id, row, seat_number, is_occupied, version, features, flight_id)"
+                        + " FROM STDIN WITH (FORMAT csv)", new StringReader(seatRows.toString()));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return null;
+        });
+    }
+
+    private void batchInsert(List<Flight> flights) {
+        jdbcTemplate.batchUpdate("insert into flights (id, flight_number, start_location, destination,"
+                + " departure_date, departure_time, price) values (?, ?, ?, ?, ?, ?, ?)", flights, BATCH_SIZE,
+                (ps, flight) -> {
+                    ps.setLong(1, flight.getId());
+                    ps.setString(2, flight.getFlightNumber());
+                    ps.setString(3, flight.getStartLocation());
+                    ps.setString(4, flight.getDestination());
+                    ps.setDate(5, Date.valueOf(flight.getDepartureDate()));
+                    ps.setTime(6, Time.valueOf(flight.getDepartureTime()));
+                    ps.setDouble(7, flight.getPrice());
+                });
+
+        List<Seat> seats = flights.stream().flatMap(flight -> flight.getSeats().stream()).toList();
+        jdbcTemplate.batchUpdate("insert into seats (id, row, seat_number, is_occupied, version, features,"
+                + " flight_id) values (?, ?, ?, ?, 0, ?, ?)", seats, BATCH_SIZE,
+                (ps, seat) -> {
+                    ps.setLong(1, seat.getId());
+                    ps.setString(2, seat.getRow());
+                    ps.setInt(3, seat.getSeatNumber());
+                    ps.setBoolean(4, seat.isOccupied());
+                    ps.setInt(5, SeatFeature.toMask(seat.getFeatures()));
+                    ps.setLong(6, seat.getFlight().getId());
+                });
+    }
+}
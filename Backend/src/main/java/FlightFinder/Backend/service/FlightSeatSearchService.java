@@ -0,0 +1,20 @@
+package FlightFinder.Backend.service;
+
+import FlightFinder.Backend.dto.FlightSeatSearchResult;
+import FlightFinder.Backend.model.SeatFeature;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+public interface FlightSeatSearchService {
+    FlightSeatSearchResult searchFlightsWithSeats(String startLocation,
+            String destination,
+            LocalDate departureDate,
+            LocalTime departureTime,
+            Double minPrice,
+            Double maxPrice,
+            int numSeatsRequired,
+            List<SeatFeature> desiredFeatures,
+            int limit);
+}
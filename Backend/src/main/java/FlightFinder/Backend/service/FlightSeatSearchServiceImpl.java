@@ -0,0 +1,184 @@
+package FlightFinder.Backend.service;
+
+import FlightFinder.Backend.cache.SeatMapCache;
+import FlightFinder.Backend.dto.FlightSeatOption;
+import FlightFinder.Backend.dto.FlightSeatSearchResult;
+import FlightFinder.Backend.exception.SeatRecommendationLimitException;
+import FlightFinder.Backend.model.Flight;
+import FlightFinder.Backend.model.Seat;
+import FlightFinder.Backend.model.SeatFeature;
+import FlightFinder.Backend.service.seatFinder.SeatMap;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Finds the flights that have suitable seats for a party, e.g. "flights from
+ * Los Santos to Vice City on this date with 4 seats together with more
+ * legroom".
+ *
+ * The flights come from the same filters as
+ * {@link FlightService#getFlightsWithFilters}. The seat maps of all candidates
+ * that are not cached yet are loaded with one query, then the candidates are
+ * evaluated in chunks on virtual threads. Chunks that do not finish before the
+ * deadline are dropped and the result is marked as incomplete, and so are
+ * flights that already have as many seat recommendations in progress as
+ * allowed.
+ */
+@Service
+public class FlightSeatSearchServiceImpl implements FlightSeatSearchService {
+
+    private static final int CHUNK_SIZE = 32;
+
+    /**
+     * Contiguous groups first, then more desired features, then cheaper and
+     * earlier flights.
+     */
+    private static final Comparator<FlightSeatOption> RANKING = Comparator
+            .comparing(FlightSeatOption::contiguous).reversed()
+            .thenComparing(Comparator.comparingInt(FlightSeatOption::featureScore).reversed())
+            .thenComparing(option -> option.flight().getPrice())
+            .thenComparing(option -> option.flight().getDepartureDate())
+            .thenComparing(option -> option.flight().getDepartureTime())
+            .thenComparing(option -> option.flight().getId());
+
+    private final FlightService flightService;
+    private final SeatService seatService;
+    private final SeatMapCache seatMapCache;
+    private final Duration timeout;
+    private final int maxCandidates;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public FlightSeatSearchServiceImpl(FlightService flightService,
+            SeatService seatService,
+            SeatMapCache seatMapCache,
+            @Value("${flightfinder.flight-seat-search.timeout:PT0.5S}") Duration timeout,
+            @Value("${flightfinder.flight-seat-search.max-candidates:500}") int maxCandidates) {
+        this.flightService = flightService;
+        this.seatService = seatService;
+        this.seatMapCache = seatMapCache;
+        this.timeout = timeout;
+        this.maxCandidates = maxCandidates;
+    }
+
+    /**
+     * Searches flights matching the filters that have seats for the party.
+     *
+     * @param startLocation    Starting location for the flight.
+     * @param destination      Destination of the flight.
+     * @param departureDate    Date the flight departs.
+     * @param departureTime    Time the flight departs.
+     * @param minPrice         Minimum price of the flight.
+     * @param maxPrice         Maximum price of the flight.
+     * @param numSeatsRequired The number of seats required.
+     * @param desiredFeatures  The list of desired seat features (can be null).
+     * @param limit            The maximum number of flights to return.
+     * @return The best flights with their recommended seats.
+     */
+    @Override
+    public FlightSeatSearchResult searchFlightsWithSeats(String startLocation,
+            String destination,
+            LocalDate departureDate,
+            LocalTime departureTime,
+            Double minPrice,
+            Double maxPrice,
+            int numSeatsRequired,
+            List<SeatFeature> desiredFeatures,
+            int limit) {
+        List<Flight> flights = flightService.getFlightsWithFilters(startLocation, destination, departureDate,
+                departureTime, minPrice, maxPrice);
+        if (numSeatsRequired < 1 || flights.isEmpty()) {
+            return new FlightSeatSearchResult(Collections.emptyList(), flights.size(), true);
+        }
+        List<Flight> candidates = flights.subList(0, Math.min(flights.size(), maxCandidates));
+        boolean complete = candidates.size() == flights.size();
+
+        // One query for every candidate that is not cached yet, instead of one per flight.
+        Map<Long, SeatMap> seatMaps = seatMapCache.getAll(candidates.stream().map(Flight::getId).toList());
+        int desiredMask = SeatFeature.toMask(desiredFeatures);
+
+        List<Callable<Chunk>> tasks = new ArrayList<>();
+        for (int from = 0; from < candidates.size(); from += CHUNK_SIZE) {
+            List<Flight> chunk = candidates.subList(from, Math.min(candidates.size(), from + CHUNK_SIZE));
+            tasks.add(() -> evaluate(chunk, seatMaps, numSeatsRequired, desiredFeatures, desiredMask));
+        }
+
+        List<FlightSeatOption> options = new ArrayList<>();
+        try {
+            for (Future<Chunk> future : executor.invokeAll(tasks, timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                if (future.isCancelled()) {
+                    complete = false;
+                } else {
+                    Chunk chunk = future.get();
+                    options.addAll(chunk.options());
+                    complete &= chunk.complete();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            complete = false;
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException runtimeException ? runtimeException
+                    : new IllegalStateException(e.getCause());
+        }
+
+        options.sort(RANKING);
+        return new FlightSeatSearchResult(options.subList(0, Math.min(options.size(), limit)), flights.size(),
+                complete);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private Chunk evaluate(List<Flight> flights, Map<Long, SeatMap> seatMaps, int numSeats,
+            List<SeatFeature> desiredFeatures, int desiredMask) {
+        List<FlightSeatOption> options = new ArrayList<>();
+        boolean complete = true;
+        for (Flight flight : flights) {
+            if (Thread.currentThread().isInterrupted()) {
+                break;
+            }
+            SeatMap seatMap = seatMaps.get(flight.getId());
+            if (seatMap == null || seatMap.getAvailableCount() < numSeats) {
+                continue;
+            }
+            List<Seat> seats;
+            try {
+                seats = seatService.getSeatRecommendations(flight.getId(), numSeats, desiredFeatures);
+            } catch (SeatRecommendationLimitException e) {
+                // One busy flight must not fail the whole search; leave it out instead.
+                complete = false;
+                continue;
+            }
+            if (!seats.isEmpty()) {
+                options.add(new FlightSeatOption(flight, seats, seatMap.isContiguous(seats.stream()
+                        .map(Seat::getId).toList()), featureScore(seats, desiredMask)));
+            }
+        }
+        return new Chunk(options, complete);
+    }
+
+    private static int featureScore(List<Seat> seats, int desiredMask) {
+        int score = 0;
+        for (Seat seat : seats) {
+            score += Integer.bitCount(SeatFeature.toMask(seat.getFeatures()) & desiredMask);
+        }
+        return score;
+    }
+
+    /**
+     * The options found in a chunk of flights, and whether every flight of the
+     * chunk was evaluated.
+     */
+    private record Chunk(List<FlightSeatOption> options, boolean complete) {
+    }
+}
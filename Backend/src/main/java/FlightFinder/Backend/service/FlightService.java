@@ -1,11 +1,14 @@
 package FlightFinder.Backend.service;
 
+import FlightFinder.Backend.dto.FlightPage;
 import FlightFinder.Backend.model.Flight;
 import FlightFinder.Backend.model.Seat;
+import FlightFinder.Backend.service.seatFinder.SeatMap;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface FlightService {
     List<Flight> getFlightsWithFilters(String startLocation,
@@ -15,7 +18,30 @@ public interface FlightService {
             Double minPrice,
             Double maxPrice);
 
+    long getCatalogVersion();
+
+    FlightPage getFlightsPage(String startLocation,
+            String destination,
+            LocalDate departureDate,
+            LocalTime departureTime,
+            Double minPrice,
+            Double maxPrice,
+            FlightSortOrder sortOrder,
+            String cursor,
+            int limit);
+
+    void streamFlightsWithFilters(String startLocation,
+            String destination,
+            LocalDate departureDate,
+            LocalTime departureTime,
+            Double minPrice,
+            Double maxPrice,
+            FlightSortOrder sortOrder,
+            Consumer<Flight> consumer);
+
     List<Seat> getSeatsByFlight(Long id);
 
+    SeatMap getSeatMap(Long id);
+
     void addFlight();
 }
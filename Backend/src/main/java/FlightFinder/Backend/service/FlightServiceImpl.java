@@ -1,30 +1,46 @@
 package FlightFinder.Backend.service;
 
+import FlightFinder.Backend.cache.SeatMapCache;
+import FlightFinder.Backend.dto.FlightPage;
+import FlightFinder.Backend.model.AircraftType;
+import FlightFinder.Backend.model.CabinLayout;
 import FlightFinder.Backend.model.Flight;
 import FlightFinder.Backend.model.Seat;
-import FlightFinder.Backend.model.SeatFeature;
 import FlightFinder.Backend.repository.FlightRepository;
+import FlightFinder.Backend.repository.FlightSpecifications;
+import FlightFinder.Backend.search.FlightSearchIndex;
+import FlightFinder.Backend.service.seatFinder.SeatMap;
 import jakarta.persistence.EntityNotFoundException;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.*;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class FlightServiceImpl implements FlightService {
 
+    private static final int STREAM_FETCH_SIZE = 500;
+
     private final FlightRepository flightRepository;
+    private final SeatMapCache seatMapCache;
+    private final FlightSearchIndex flightSearchIndex;
 
-    public FlightServiceImpl(FlightRepository flightRepository) {
+    public FlightServiceImpl(FlightRepository flightRepository, SeatMapCache seatMapCache,
+            FlightSearchIndex flightSearchIndex) {
         this.flightRepository = flightRepository;
+        this.seatMapCache = seatMapCache;
+        this.flightSearchIndex = flightSearchIndex;
     }
 
     /**
-     * Gets a list of flights based on the provided filters.
+     * Gets a list of flights based on the provided filters. Answered from the
+     * in-memory flight search index instead of scanning the flights table.
      *
      * @param startLocation Starting location for the flight.
      * @param destination   Destination of the flight.
@@ -42,47 +58,120 @@ public class FlightServiceImpl implements FlightService {
             LocalTime departureTime,
             Double minPrice,
             Double maxPrice) {
-        Specification<Flight> spec = Specification.where(null);
-
-        if (startLocation != null) {
-            spec = spec.and((root, query, cb) -> cb.like(cb.lower(root.get("startLocation")),
-                    "%" + startLocation.toLowerCase() + "%"));
-        }
+        return flightSearchIndex.search(startLocation, destination, departureDate, departureTime, minPrice,
+                maxPrice);
+    }
 
-        if (destination != null) {
-            spec = spec.and((root, query, cb) -> cb.like(cb.lower(root.get("destination")),
-                    "%" + destination.toLowerCase() + "%"));
-        }
+    /**
+     * Gets the version of the flight catalog that
+     * {@link #getFlightsWithFilters} searches, e.g. to tag its results.
+     *
+     * @return The catalog version, increased every time flights are added.
+     */
+    @Override
+    public long getCatalogVersion() {
+        return flightSearchIndex.getVersion();
+    }
 
-        if (departureDate != null) {
-            spec = spec.and((root, query, cb) -> cb.equal(root.get("departureDate"), departureDate));
+    /**
+     * Gets one page of flights matching the filters, using keyset pagination so
+     * later pages cost the same as the first one.
+     *
+     * @param startLocation Starting location for the flight.
+     * @param destination   Destination of the flight.
+     * @param departureDate Date the flight departs.
+     * @param departureTime Time the flight departs.
+     * @param minPrice      Minimum price of the flight.
+     * @param maxPrice      Maximum price of the flight.
+     * @param sortOrder     Order of the results.
+     * @param cursor        Cursor returned with the previous page, or null for the
+     *                      first page.
+     * @param limit         Maximum number of flights on the page.
+     * @return The page of flights and the cursor for the next page.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public FlightPage getFlightsPage(
+            String startLocation,
+            String destination,
+            LocalDate departureDate,
+            LocalTime departureTime,
+            Double minPrice,
+            Double maxPrice,
+            FlightSortOrder sortOrder,
+            String cursor,
+            int limit) {
+        Specification<Flight> spec = FlightSpecifications.withFilters(startLocation, destination, departureDate,
+                departureTime, minPrice, maxPrice);
+        if (cursor != null) {
+            spec = spec.and(sortOrder.afterCursor(cursor));
         }
 
-        if (departureTime != null) {
-            spec = spec.and((root, query, cb) -> cb.equal(root.get("departureTime"), departureTime));
+        // Fetch one extra flight to find out whether there is a next page.
+        List<Flight> flights = flightRepository.findAllCached(spec, sortOrder.getSort(), limit + 1);
+        if (flights.size() <= limit) {
+            return new FlightPage(flights, null);
         }
+        List<Flight> page = flights.subList(0, limit);
+        return new FlightPage(page, sortOrder.encodeCursor(page.get(limit - 1)));
+    }
 
-        if (minPrice != null || maxPrice != null) {
-            spec = spec.and((root, query, cb) -> {
-                if (minPrice != null && maxPrice != null) {
-                    return cb.between(root.get("price"), minPrice, maxPrice);
-                } else if (minPrice != null) {
-                    return cb.greaterThanOrEqualTo(root.get("price"), minPrice);
-                } else {
-                    return cb.lessThanOrEqualTo(root.get("price"), maxPrice);
-                }
-            });
+    /**
+     * Passes every flight matching the filters to the consumer as it is read
+     * from the database, without collecting the result in memory.
+     *
+     * @param startLocation Starting location for the flight.
+     * @param destination   Destination of the flight.
+     * @param departureDate Date the flight departs.
+     * @param departureTime Time the flight departs.
+     * @param minPrice      Minimum price of the flight.
+     * @param maxPrice      Maximum price of the flight.
+     * @param sortOrder     Order of the results.
+     * @param consumer      Receives the matching flights one by one.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void streamFlightsWithFilters(
+            String startLocation,
+            String destination,
+            LocalDate departureDate,
+            LocalTime departureTime,
+            Double minPrice,
+            Double maxPrice,
+            FlightSortOrder sortOrder,
+            Consumer<Flight> consumer) {
+        Specification<Flight> spec = FlightSpecifications.withFilters(startLocation, destination, departureDate,
+                departureTime, minPrice, maxPrice);
+        try (Stream<Flight> flights = flightRepository.streamAll(spec, sortOrder.getSort(), STREAM_FETCH_SIZE)) {
+            flights.forEach(consumer);
         }
-
-        return flightRepository.findAll(spec);
     }
 
+    /**
+     * Gets the seats of a flight with their current occupancy. Served from the
+     * seat map cache, so a warm flight does not touch the database.
+     *
+     * @param id ID of the flight.
+     * @return List of the flight's seats.
+     */
     @Override
-    @Transactional(readOnly = true)
     public List<Seat> getSeatsByFlight(Long id) {
-        Flight flight = flightRepository.findById(id)
+        return seatMapCache.get(id)
+                .map(SeatMap::getSeats)
+                .orElseThrow(() -> new EntityNotFoundException("Flight not found with id: " + id));
+    }
+
+    /**
+     * Gets the compiled seat map of a flight, e.g. to write it in the compact
+     * format without building a seat object per seat.
+     *
+     * @param id ID of the flight.
+     * @return The flight's current seat map.
+     */
+    @Override
+    public SeatMap getSeatMap(Long id) {
+        return seatMapCache.get(id)
                 .orElseThrow(() -> new EntityNotFoundException("Flight not found with id: " + id));
-        return flight.getSeats();
     }
 
     /**
@@ -114,41 +203,22 @@ public class FlightServiceImpl implements FlightService {
         double price = ThreadLocalRandom.current().nextDouble(100, 500);
         flight.setPrice(price);
 
+        // Every seat of the aircraft's cabin layout, row by row
+        AircraftType aircraftType = AircraftType.A320;
+        CabinLayout layout = aircraftType.getLayout();
+        flight.setAircraftType(aircraftType);
         List<Seat> seats = new ArrayList<>();
-
-        // Define airplane seat configuration
-        int numRows = 6;
-        String[] seatColumns = { "A", "B", "C", "D", "E", "F", "G", "H", "I", "J", "K", "L" };
-
-        // Loop through columns first, then rows to arrange seats left to right
-        for (String column : seatColumns) {
-            for (int row = 1; row <= numRows; row++) {
+        for (int row = layout.getFirstRow(); row <= layout.getLastRow(); row++) {
+            for (int seatNumber = 1; seatNumber <= layout.getColumnCount(); seatNumber++) {
                 Seat seat = new Seat();
-                seat.setRow(column);
-                seat.setSeatNumber(row);
+                seat.setRow(String.valueOf(row));
+                seat.setSeatNumber(seatNumber);
 
                 // Randomly decide if the seat is occupied (50% chance)
                 seat.setOccupied(ThreadLocalRandom.current().nextBoolean());
 
                 // Assign seat features based on position
-                Set<SeatFeature> features = new HashSet<>();
-                if ((row == 1 || row == 6) &&
-                        !column.equals("C") &&
-                        !column.equals("F") &&
-                        !column.equals("I") &&
-                        !column.equals("L")) {
-                    features.add(SeatFeature.WINDOW_SEAT); // Window seats
-                }
-
-                if (column.equals("A") || column.equals("B") || column.equals("C") || column.equals("D")) {
-                    features.add(SeatFeature.MORE_LEGROOM);
-                }
-
-                if (row == 3 || row == 4) {
-                    features.add(SeatFeature.CLOSE_TO_EXIT);
-                }
-
-                seat.setFeatures(features);
+                seat.setFeatures(layout.featuresOf(row, seatNumber));
                 seat.setFlight(flight); // Associate seat with the flight
                 seats.add(seat);
             }
@@ -158,6 +228,6 @@ public class FlightServiceImpl implements FlightService {
         flight.setSeats(seats);
 
         // Save the flight (CascadeType.ALL ensures seats are saved too)
-        flightRepository.save(flight);
+        flightSearchIndex.add(flightRepository.save(flight));
     }
 }
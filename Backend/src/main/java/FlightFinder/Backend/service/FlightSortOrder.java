@@ -0,0 +1,111 @@
+package FlightFinder.Backend.service;
+
+import FlightFinder.Backend.model.Flight;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Base64;
+
+/**
+ * Sort orders supported by the paginated flight search, together with the
+ * keyset cursor for each of them. Every order ends with the flight ID, so the
+ * order is total and a cursor points at exactly one position.
+ */
+public enum FlightSortOrder {
+
+    /**
+     * Earliest departure first.
+     */
+    DEPARTURE(Sort.by("departureDate", "departureTime", "id")) {
+        @Override
+        String[] cursorValues(Flight flight) {
+            return new String[] { flight.getDepartureDate().toString(), flight.getDepartureTime().toString(),
+                    flight.getId().toString() };
+        }
+
+        @Override
+        Specification<Flight> after(String[] values) {
+            LocalDate date = LocalDate.parse(values[0]);
+            LocalTime time = LocalTime.parse(values[1]);
+            long id = Long.parseLong(values[2]);
+            return (root, query, cb) -> cb.or(
+                    cb.greaterThan(root.get("departureDate"), date),
+                    cb.and(cb.equal(root.get("departureDate"), date),
+                            cb.or(cb.greaterThan(root.get("departureTime"), time),
+                                    cb.and(cb.equal(root.get("departureTime"), time),
+                                            cb.greaterThan(root.get("id"), id)))));
+        }
+    },
+
+    /**
+     * Cheapest flight first.
+     */
+    PRICE(Sort.by("price", "id")) {
+        @Override
+        String[] cursorValues(Flight flight) {
+            return new String[] { flight.getPrice().toString(), flight.getId().toString() };
+        }
+
+        @Override
+        Specification<Flight> after(String[] values) {
+            double price = Double.parseDouble(values[0]);
+            long id = Long.parseLong(values[1]);
+            return (root, query, cb) -> cb.or(
+                    cb.greaterThan(root.get("price"), price),
+                    cb.and(cb.equal(root.get("price"), price), cb.greaterThan(root.get("id"), id)));
+        }
+    };
+
+    private static final String SEPARATOR = "|";
+
+    private final Sort sort;
+
+    FlightSortOrder(Sort sort) {
+        this.sort = sort;
+    }
+
+    public Sort getSort() {
+        return sort;
+    }
+
+    /**
+     * Encodes the position of a flight in this order as an opaque cursor.
+     *
+     * @param flight The last flight of a page.
+     * @return The cursor pointing after the flight.
+     */
+    public String encodeCursor(Flight flight) {
+        String value = name() + SEPARATOR + String.join(SEPARATOR, cursorValues(flight));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Builds the keyset predicate selecting the flights after a cursor.
+     *
+     * @param cursor Cursor returned with the previous page.
+     * @return Specification matching flights that come after the cursor.
+     * @throws IllegalArgumentException if the cursor is malformed or belongs to
+     *                                  another sort order.
+     */
+    public Specification<Flight> afterCursor(String cursor) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = value.split("\\" + SEPARATOR);
+            if (!parts[0].equals(name())) {
+                throw new IllegalArgumentException("Cursor does not belong to sort order " + name());
+            }
+            String[] values = new String[parts.length - 1];
+            System.arraycopy(parts, 1, values, 0, values.length);
+            return after(values);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+
+    abstract String[] cursorValues(Flight flight);
+
+    abstract Specification<Flight> after(String[] values);
+}
@@ -0,0 +1,103 @@
+package FlightFinder.Backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timer wheel for seat hold expiry.
+ *
+ * Time is divided into ticks; a hold expiring at tick {@code t} goes into
+ * bucket {@code t % buckets}. A single background thread advances the wheel
+ * and only looks at the bucket of the current tick, so scheduling is a lock-free
+ * queue insert and expiry costs nothing for holds that are not due yet.
+ */
+class HoldExpiryWheel implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(HoldExpiryWheel.class);
+
+    private static final int BUCKETS = 1024;
+
+    private final long tickNanos;
+    private final long startNanos = System.nanoTime();
+    private final List<Queue<Timeout>> buckets = new ArrayList<>(BUCKETS);
+    private final Consumer<String> onExpire;
+    private final ScheduledExecutorService ticker;
+
+    private volatile long processedTick;
+
+    /**
+     * @param tickMillis Length of one tick in milliseconds; holds expire at most
+     *                   about one tick late.
+     * @param onExpire   Called with the hold ID when a hold is due.
+     */
+    HoldExpiryWheel(long tickMillis, Consumer<String> onExpire) {
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        this.onExpire = onExpire;
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets.add(new ConcurrentLinkedQueue<>());
+        }
+        this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "seat-hold-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(this::advance, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Schedules a hold to expire after the given delay.
+     *
+     * @param holdId      The ID of the hold.
+     * @param delayMillis Time until the hold expires, in milliseconds.
+     */
+    void schedule(String holdId, long delayMillis) {
+        long deadline = currentTick() + Math.max(1, TimeUnit.MILLISECONDS.toNanos(delayMillis) / tickNanos);
+        // Never put a hold into a bucket the ticker has already passed.
+        long tick = Math.max(deadline, processedTick + 1);
+        buckets.get((int) (tick % BUCKETS)).add(new Timeout(holdId, deadline));
+    }
+
+    private long currentTick() {
+        return (System.nanoTime() - startNanos) / tickNanos;
+    }
+
+    private void advance() {
+        long now = currentTick();
+        for (long tick = processedTick + 1; tick <= now; tick++) {
+            processedTick = tick;
+            Queue<Timeout> bucket = buckets.get((int) (tick % BUCKETS));
+            List<Timeout> notDue = new ArrayList<>();
+            Timeout timeout;
+            while ((timeout = bucket.poll()) != null) {
+                if (timeout.deadline <= tick) {
+                    try {
+                        onExpire.accept(timeout.holdId);
+                    } catch (RuntimeException e) {
+                        // Keep the wheel running for the other holds.
+                        log.warn("Failed to expire seat hold {}", timeout.holdId, e);
+                    }
+                } else {
+                    notDue.add(timeout); // Due in a later round of the wheel.
+                }
+            }
+            bucket.addAll(notDue);
+        }
+    }
+
+    @Override
+    public void close() {
+        ticker.shutdownNow();
+    }
+
+    private record Timeout(String holdId, long deadline) {
+    }
+}
@@ -0,0 +1,17 @@
+package FlightFinder.Backend.service;
+
+import FlightFinder.Backend.dto.SeatHold;
+import FlightFinder.Backend.model.Seat;
+import FlightFinder.Backend.model.SeatFeature;
+
+import java.util.List;
+
+public interface SeatHoldService {
+    SeatHold holdRecommendedSeats(Long flightId, int numSeatsRequired, List<SeatFeature> desiredFeatures);
+
+    SeatHold holdSeats(Long flightId, List<Long> seatIds);
+
+    List<Seat> confirmHold(String holdId);
+
+    void releaseHold(String holdId);
+}
@@ -0,0 +1,204 @@
+package FlightFinder.Backend.service;
+
+import FlightFinder.Backend.cache.SeatMapCache;
+import FlightFinder.Backend.dto.SeatHold;
+import FlightFinder.Backend.exception.SeatHoldConflictException;
+import FlightFinder.Backend.exception.SeatHoldNotFoundException;
+import FlightFinder.Backend.model.Seat;
+import FlightFinder.Backend.model.SeatFeature;
+import FlightFinder.Backend.repository.SeatRepository;
+import FlightFinder.Backend.service.seatFinder.SeatMap;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds, confirms and releases seats.
+ *
+ * Seats are claimed with a compare-and-set on the flight's cached seat map, so
+ * concurrent claims on the same flight never block each other and a seat can
+ * only ever be held once. Confirming a hold writes the seats to the database
+ * with optimistic locking on {@link Seat#getVersion()}; holds that are neither
+ * confirmed nor released expire after the configured time-to-live.
+ */
+@Service
+public class SeatHoldServiceImpl implements SeatHoldService {
+
+    private static final int MAX_CLAIM_ATTEMPTS = 16;
+    private static final long EXPIRY_TICK_MILLIS = 100;
+
+    private final SeatService seatService;
+    private final SeatMapCache seatMapCache;
+    private final SeatRepository seatRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration ttl;
+
+    private final Map<String, ActiveHold> holds = new ConcurrentHashMap<>();
+    private final HoldExpiryWheel expiryWheel;
+
+    public SeatHoldServiceImpl(SeatService seatService,
+            SeatMapCache seatMapCache,
+            SeatRepository seatRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${flightfinder.seat-hold.ttl:PT5M}") Duration ttl) {
+        this.seatService = seatService;
+        this.seatMapCache = seatMapCache;
+        this.seatRepository = seatRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ttl = ttl;
+        this.expiryWheel = new HoldExpiryWheel(EXPIRY_TICK_MILLIS, this::expireHold);
+    }
+
+    /**
+     * Holds the seats that would currently be recommended for the request. If
+     * another customer takes some of them first, the recommendation is computed
+     * again on the new seat map.
+     *
+     * @param flightId         The ID of the flight.
+     * @param numSeatsRequired The number of seats required.
+     * @param desiredFeatures  The list of desired seat features (can be empty).
+     * @return The created hold.
+     * @throws SeatHoldConflictException if no suitable seats can be held.
+     */
+    @Override
+    public SeatHold holdRecommendedSeats(Long flightId, int numSeatsRequired, List<SeatFeature> desiredFeatures) {
+        requireFlight(flightId);
+        for (int attempt = 0; attempt < MAX_CLAIM_ATTEMPTS; attempt++) {
+            List<Seat> seats = seatService.getSeatRecommendations(flightId, numSeatsRequired, desiredFeatures);
+            if (seats.isEmpty()) {
+                throw new SeatHoldConflictException("Not enough free seats on flight " + flightId);
+            }
+            Optional<SeatHold> hold = tryHold(flightId, seats.stream().map(Seat::getId).toList());
+            if (hold.isPresent()) {
+                return hold.get();
+            }
+        }
+        throw new SeatHoldConflictException("Seats on flight " + flightId + " are in high demand, try again");
+    }
+
+    /**
+     * Holds the given seats, either all of them or none.
+     *
+     * @param flightId The ID of the flight.
+     * @param seatIds  IDs of the seats to hold.
+     * @return The created hold.
+     * @throws SeatHoldConflictException if any of the seats is not free.
+     */
+    @Override
+    public SeatHold holdSeats(Long flightId, List<Long> seatIds) {
+        requireFlight(flightId);
+        if (seatIds == null || seatIds.isEmpty()) {
+            throw new IllegalArgumentException("No seats to hold");
+        }
+        return tryHold(flightId, List.copyOf(seatIds))
+                .orElseThrow(() -> new SeatHoldConflictException("Seats are not available: " + seatIds));
+    }
+
+    /**
+     * Books the seats of a hold.
+     *
+     * @param holdId The ID of the hold.
+     * @return The booked seats.
+     * @throws SeatHoldNotFoundException if the hold does not exist or expired.
+     * @throws SeatHoldConflictException if the seats were booked elsewhere.
+     */
+    @Override
+    public List<Seat> confirmHold(String holdId) {
+        ActiveHold hold = holds.remove(holdId);
+        if (hold == null) {
+            throw new SeatHoldNotFoundException(holdId);
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Seat> seats = seatRepository.findAllById(hold.seatIds());
+                if (seats.size() != hold.seatIds().size() || seats.stream().anyMatch(Seat::isOccupied)) {
+                    throw new SeatHoldConflictException("Seats were booked by another request");
+                }
+                seats.forEach(seat -> seat.setOccupied(true));
+            });
+        } catch (SeatHoldConflictException | OptimisticLockingFailureException e) {
+            // Someone outside this cache booked the seats; take over the database state.
+            syncFromDatabase(hold);
+            throw e instanceof SeatHoldConflictException conflict ? conflict
+                    : new SeatHoldConflictException("Seats were booked by another request", e);
+        } catch (RuntimeException e) {
+            seatMapCache.endHold(hold.flightId(), hold.seatIds(), false);
+            throw e;
+        }
+
+        seatMapCache.endHold(hold.flightId(), hold.seatIds(), true);
+        return seatMapCache.get(hold.flightId())
+                .map(seatMap -> seatMap.getSeats(hold.seatIds()))
+                .orElse(Collections.emptyList());
+    }
+
+    /**
+     * Releases the seats of a hold.
+     *
+     * @param holdId The ID of the hold.
+     * @throws SeatHoldNotFoundException if the hold does not exist or expired.
+     */
+    @Override
+    public void releaseHold(String holdId) {
+        ActiveHold hold = holds.remove(holdId);
+        if (hold == null) {
+            throw new SeatHoldNotFoundException(holdId);
+        }
+        seatMapCache.endHold(hold.flightId(), hold.seatIds(), false);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        expiryWheel.close();
+    }
+
+    private Optional<SeatHold> tryHold(Long flightId, List<Long> seatIds) {
+        Optional<SeatMap> held = seatMapCache.hold(flightId, seatIds);
+        if (held.isEmpty()) {
+            return Optional.empty();
+        }
+
+        String holdId = UUID.randomUUID().toString();
+        Instant expiresAt = Instant.now().plus(ttl);
+        holds.put(holdId, new ActiveHold(flightId, seatIds));
+        expiryWheel.schedule(holdId, ttl.toMillis());
+
+        return Optional.of(new SeatHold(holdId, flightId, held.get().getSeats(seatIds), expiresAt));
+    }
+
+    private void expireHold(String holdId) {
+        ActiveHold hold = holds.remove(holdId);
+        if (hold != null) {
+            seatMapCache.endHold(hold.flightId(), hold.seatIds(), false);
+        }
+    }
+
+    private void syncFromDatabase(ActiveHold hold) {
+        List<Long> occupied = new ArrayList<>();
+        List<Long> free = new ArrayList<>();
+        for (Seat seat : seatRepository.findAllById(hold.seatIds())) {
+            (seat.isOccupied() ? occupied : free).add(seat.getId());
+        }
+        seatMapCache.updateOccupancy(hold.flightId(), occupied, true);
+        seatMapCache.updateOccupancy(hold.flightId(), free, false);
+    }
+
+    private void requireFlight(Long flightId) {
+        if (seatMapCache.get(flightId).isEmpty()) {
+            throw new EntityNotFoundException("Flight not found with id: " + flightId);
+        }
+    }
+
+    private record ActiveHold(Long flightId, List<Long> seatIds) {
+    }
+}
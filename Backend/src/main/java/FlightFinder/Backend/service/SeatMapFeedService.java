@@ -0,0 +1,7 @@
+package FlightFinder.Backend.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface SeatMapFeedService {
+    SseEmitter subscribe(Long flightId, String lastEventId);
+}
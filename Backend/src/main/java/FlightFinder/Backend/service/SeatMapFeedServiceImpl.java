@@ -0,0 +1,295 @@
+package FlightFinder.Backend.service;
+
+import FlightFinder.Backend.cache.SeatMapCache;
+import FlightFinder.Backend.dto.CompactSeatMap;
+import FlightFinder.Backend.dto.SeatMapDelta;
+import FlightFinder.Backend.exception.SeatFeedLimitException;
+import FlightFinder.Backend.service.seatFinder.SeatMap;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Live seat maps as Server-Sent Events.
+ *
+ * A subscriber first gets a {@code snapshot} event with the flight's seat map
+ * in the {@link CompactSeatMap} format, then a {@code delta} event
+ * ({@link SeatMapDelta}) whenever seats become occupied or free. The event ID
+ * is the seat map version, so a reconnecting client that sends it back as
+ * {@code Last-Event-ID} only gets the changes since then, as long as that
+ * version is among the last {@value #HISTORY_SIZE} of the flight. Versions
+ * count from zero again after a restart, so the ID also carries a token of this
+ * start of the backend, and IDs from another start get a snapshot.
+ *
+ * There is one feed per watched flight, fed by the {@link SeatMapCache}
+ * listener. Events are sent on virtual threads, never on the thread that
+ * changed the seat map. A subscriber is always sent the difference between
+ * the last seat map it got and the latest one, so a slow client receives
+ * fewer, larger deltas instead of building up a queue.
+ */
+@Service
+public class SeatMapFeedServiceImpl implements SeatMapFeedService, SeatMapCache.Listener {
+
+    private static final int HISTORY_SIZE = 64;
+
+    private final SeatMapCache seatMapCache;
+    private final ObjectMapper objectMapper;
+    private final int maxSubscribers;
+    private final Duration timeout;
+    private final Duration resumeWindow;
+
+    private final String instance = Long.toString(ThreadLocalRandom.current().nextLong() >>> 1, 36);
+    private final Map<Long, Feed> feeds = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public SeatMapFeedServiceImpl(SeatMapCache seatMapCache,
+            ObjectMapper objectMapper,
+            @Value("${flightfinder.seat-feed.max-subscribers:1000}") int maxSubscribers,
+            @Value("${flightfinder.seat-feed.timeout:PT30M}") Duration timeout,
+            @Value("${flightfinder.seat-feed.resume-window:PT1M}") Duration resumeWindow) {
+        this.seatMapCache = seatMapCache;
+        this.objectMapper = objectMapper;
+        this.maxSubscribers = maxSubscribers;
+        this.timeout = timeout;
+        this.resumeWindow = resumeWindow;
+        seatMapCache.addListener(this);
+    }
+
+    /**
+     * Subscribes to the seat map of a flight.
+     *
+     * @param flightId    The ID of the flight.
+     * @param lastEventId The last event ID the client received, if it is
+     *                    reconnecting.
+     * @return The event stream.
+     * @throws SeatFeedLimitException if the flight has too many subscribers.
+     */
+    @Override
+    public SseEmitter subscribe(Long flightId, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        subscribe(flightId, lastEventId, emitter);
+        return emitter;
+    }
+
+    void subscribe(Long flightId, String lastEventId, SseEmitter emitter) {
+        SeatMap seatMap = seatMapCache.get(flightId)
+                .orElseThrow(() -> new EntityNotFoundException("Flight not found with id: " + flightId));
+
+        Subscriber subscriber = new Subscriber(emitter);
+        Feed feed = feeds.compute(flightId, (id, existing) -> {
+            Feed current = existing != null ? existing : new Feed(id);
+            if (current.subscribers.size() >= maxSubscribers) {
+                throw new SeatFeedLimitException("Too many subscribers for flight " + id);
+            }
+            current.subscribers.add(subscriber);
+            return current;
+        });
+        feed.offer(seatMap);
+        // Without a known version of this start the first event is a snapshot.
+        subscriber.sent = feed.find(parseVersion(lastEventId));
+
+        emitter.onCompletion(() -> unsubscribe(feed, subscriber));
+        emitter.onTimeout(() -> unsubscribe(feed, subscriber));
+        emitter.onError(e -> unsubscribe(feed, subscriber));
+        executor.execute(() -> drain(feed, subscriber));
+    }
+
+    @Override
+    public void seatMapChanged(Long flightId, SeatMap seatMap) {
+        Feed feed = feeds.get(flightId);
+        if (feed != null && feed.offer(seatMap)) {
+            for (Subscriber subscriber : feed.subscribers) {
+                schedule(feed, subscriber);
+            }
+        }
+    }
+
+    /**
+     * Keeps watched flights cached, so their changes keep coming through the
+     * listener.
+     */
+    @Override
+    public boolean pins(Long flightId) {
+        Feed feed = feeds.get(flightId);
+        return feed != null && !feed.subscribers.isEmpty();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Starts sending to the subscriber unless a send is already running.
+     */
+    private void schedule(Feed feed, Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            executor.execute(() -> drain(feed, subscriber));
+        }
+    }
+
+    private void drain(Feed feed, Subscriber subscriber) {
+        try {
+            SeatMap latest = feed.latest();
+            while (subscriber.sent == null || subscriber.sent.getVersion() < latest.getVersion()) {
+                send(feed.flightId, subscriber, latest);
+                subscriber.sent = latest;
+                latest = feed.latest();
+            }
+        } catch (IOException | RuntimeException e) {
+            // The client is gone; it is never scheduled again.
+            unsubscribe(feed, subscriber);
+            subscriber.emitter.completeWithError(e);
+            return;
+        }
+        subscriber.draining.set(false);
+        // A seat map may have arrived after the last check.
+        if (subscriber.sent.getVersion() < feed.latest().getVersion()) {
+            schedule(feed, subscriber);
+        }
+    }
+
+    private void send(Long flightId, Subscriber subscriber, SeatMap latest) throws IOException {
+        SeatMap sent = subscriber.sent;
+        String id = instance + "-" + latest.getVersion();
+        if (sent != null && sent.hasSameLayout(latest)) {
+            SeatMapDelta delta = delta(sent, latest);
+            if (!delta.occupied().isEmpty() || !delta.free().isEmpty()) {
+                subscriber.emitter.send(SseEmitter.event().id(id).name("delta")
+                        .data(objectMapper.writeValueAsString(delta), MediaType.APPLICATION_JSON));
+            }
+        } else {
+            StringWriter snapshot = new StringWriter();
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(snapshot)) {
+                CompactSeatMap.write(flightId, latest, generator);
+            }
+            subscriber.emitter.send(SseEmitter.event().id(id).name("snapshot")
+                    .data(snapshot.toString(), MediaType.APPLICATION_JSON));
+        }
+    }
+
+    /**
+     * Lists the seats whose occupancy differs between two seat maps of the same
+     * layout.
+     */
+    static SeatMapDelta delta(SeatMap from, SeatMap to) {
+        List<Long> occupied = new ArrayList<>();
+        List<Long> free = new ArrayList<>();
+        for (int r = 0; r < to.getRowCount(); r++) {
+            long changed = from.getFreeMask(r) ^ to.getFreeMask(r);
+            while (changed != 0) {
+                int bit = Long.numberOfTrailingZeros(changed);
+                Long seatId = to.getSeat(r, bit).getId();
+                if ((to.getFreeMask(r) & (1L << bit)) == 0) {
+                    occupied.add(seatId);
+                } else {
+                    free.add(seatId);
+                }
+                changed &= changed - 1;
+            }
+        }
+        return new SeatMapDelta(to.getVersion(), occupied, free);
+    }
+
+    /**
+     * Removes a subscriber. A feed without subscribers is kept for the resume
+     * window, so clients that reconnect within it still get a delta.
+     */
+    private void unsubscribe(Feed feed, Subscriber subscriber) {
+        if (feed.subscribers.remove(subscriber) && feed.subscribers.isEmpty()) {
+            CompletableFuture.delayedExecutor(resumeWindow.toMillis(), TimeUnit.MILLISECONDS, executor)
+                    .execute(() -> feeds.computeIfPresent(feed.flightId,
+                            (id, current) -> current == feed && feed.subscribers.isEmpty() ? null : current));
+        }
+    }
+
+    /**
+     * @return The seat map version of an event ID of this start of the backend,
+     *         or -1 for a missing or foreign ID.
+     */
+    private long parseVersion(String lastEventId) {
+        String prefix = instance + "-";
+        if (lastEventId == null || !lastEventId.trim().startsWith(prefix)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(lastEventId.trim().substring(prefix.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Subscribers and recent seat maps of one flight.
+     */
+    private static final class Feed {
+        private final Long flightId;
+        private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+        private final ArrayDeque<SeatMap> history = new ArrayDeque<>();
+
+        private Feed(Long flightId) {
+            this.flightId = flightId;
+        }
+
+        /**
+         * Adds a seat map unless it is not newer than the latest one.
+         */
+        synchronized boolean offer(SeatMap seatMap) {
+            SeatMap latest = history.peekLast();
+            if (latest != null && seatMap.getVersion() <= latest.getVersion()) {
+                return false;
+            }
+            history.addLast(seatMap);
+            if (history.size() > HISTORY_SIZE) {
+                history.removeFirst();
+            }
+            return true;
+        }
+
+        synchronized SeatMap latest() {
+            return history.peekLast();
+        }
+
+        synchronized SeatMap find(long version) {
+            for (SeatMap seatMap : history) {
+                if (seatMap.getVersion() == version) {
+                    return seatMap;
+                }
+            }
+            return null;
+        }
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        // Starts out set, so nothing is sent before the subscription is complete.
+        private final AtomicBoolean draining = new AtomicBoolean(true);
+        // Only touched by the thread that holds the draining flag.
+        private SeatMap sent;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package FlightFinder.Backend.service;
 
+import FlightFinder.Backend.dto.Party;
 import FlightFinder.Backend.model.Seat;
 import FlightFinder.Backend.model.SeatFeature;
 
@@ -7,4 +8,9 @@ import java.util.*;
 
 public interface SeatService {
     List<Seat> getSeatRecommendations(Long flightId, int numSeatsRequired, List<SeatFeature> desiredFeatures);
+
+    List<List<Seat>> getSeatRecommendationOptions(Long flightId, int numSeatsRequired,
+            List<SeatFeature> desiredFeatures, int maxOptions);
+
+    List<List<Seat>> allocateParties(Long flightId, List<Party> parties);
 }
@@ -1,31 +1,78 @@
 package FlightFinder.Backend.service;
 
-import FlightFinder.Backend.model.Flight;
+import FlightFinder.Backend.cache.RecommendationCache;
+import FlightFinder.Backend.cache.SeatMapCache;
+import FlightFinder.Backend.dto.Party;
+import FlightFinder.Backend.exception.SeatRecommendationLimitException;
+import FlightFinder.Backend.metrics.SeatRecommendationMetrics;
+import FlightFinder.Backend.metrics.SeatRecommendationMetrics.Admission;
+import FlightFinder.Backend.metrics.SeatRecommendationMetrics.Recording;
+import FlightFinder.Backend.metrics.SeatRecommendationMetrics.Stage;
 import FlightFinder.Backend.model.Seat;
 import FlightFinder.Backend.model.SeatFeature;
-import FlightFinder.Backend.repository.FlightRepository;
-import FlightFinder.Backend.service.seatFinder.ContiguousSeatFinder;
-import FlightFinder.Backend.service.seatFinder.MixedSeatFinder;
+import FlightFinder.Backend.service.seatFinder.BitsetSeatFinder;
+import FlightFinder.Backend.service.seatFinder.SeatMap;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
 
 @Service
 public class SeatServiceImpl implements SeatService {
 
-    private final FlightRepository flightRepository;
+    private final SeatMapCache seatMapCache;
+    private final RecommendationCache recommendationCache;
+    private final SeatRecommendationMetrics metrics;
 
-    public SeatServiceImpl(FlightRepository flightRepository) {
-        this.flightRepository = flightRepository;
+    /**
+     * Pool the mixed finder searches large cabins on, bounded so that a few
+     * group bookings cannot take every core; null to always search in the
+     * request thread, e.g. on a single core.
+     */
+    private final ForkJoinPool searchPool;
+
+    /** Maximum number of distinct recommendations computed at once per flight. */
+    private final int maxConcurrentPerFlight;
+
+    /** Recommendations being computed, for identical requests to wait for. */
+    private final Map<Key, CompletableFuture<List<Seat>>> inFlight = new ConcurrentHashMap<>();
+
+    /** Number of recommendations being computed per flight; absent when none. */
+    private final Map<Long, Integer> computations = new ConcurrentHashMap<>();
+
+    public SeatServiceImpl(SeatMapCache seatMapCache, RecommendationCache recommendationCache,
+            SeatRecommendationMetrics metrics,
+            @Value("${flightfinder.seat-search.parallelism:4}") int parallelism,
+            @Value("${flightfinder.seat-recommendation.max-concurrent-per-flight:16}") int maxConcurrentPerFlight) {
+        this.seatMapCache = seatMapCache;
+        this.recommendationCache = recommendationCache;
+        this.metrics = metrics;
+        this.maxConcurrentPerFlight = maxConcurrentPerFlight;
+        int threads = Math.min(parallelism, Runtime.getRuntime().availableProcessors());
+        this.searchPool = threads > 1 ? new ForkJoinPool(threads) : null;
     }
 
     /**
      * Retrieves seat recommendations for a given flight.
      *
+     * Identical requests (same flight, group size and features) that arrive
+     * while one of them is being computed wait for that computation and get its
+     * result instead of loading and searching the seat map again. Only the
+     * distinct computations of a flight count against
+     * {@code maxConcurrentPerFlight}; a request beyond it is rejected, so a
+     * flash sale on one flight cannot take every request thread.
+     *
      * @param flightId         The ID of the flight.
      * @param numSeatsRequired The number of seats required.
      * @param desiredFeatures  The list of desired seat features (can be empty).
      * @return A list of recommended seats.
+     * @throws SeatRecommendationLimitException if the flight has too many
+     *                                          recommendations in progress.
      */
     @Override
     public List<Seat> getSeatRecommendations(Long flightId, int numSeatsRequired, List<SeatFeature> desiredFeatures) {
@@ -38,51 +85,244 @@ public class SeatServiceImpl implements SeatService {
         List<SeatFeature> nonNullDesiredFeatures = (desiredFeatures != null) ? desiredFeatures
                 : Collections.emptyList();
 
-        // Fetch the flight and find the best seat group if the flight exists.
-        return flightRepository.findById(flightId)
-                .map(flight -> {
-                    List<Seat> availableSeats = getAvailableSeats(flight);
-                    if (availableSeats.size() < numSeatsRequired) {
-                        return Collections.<Seat>emptyList();
-                    }
-                    return findBestSeatGroup(availableSeats, numSeatsRequired, nonNullDesiredFeatures);
-                })
+        Recording recording = metrics.start(numSeatsRequired, nonNullDesiredFeatures);
+
+        // Join an identical request in progress, if there is one.
+        Key key = new Key(flightId, numSeatsRequired, SeatMap.featureBits(nonNullDesiredFeatures));
+        CompletableFuture<List<Seat>> computation = new CompletableFuture<>();
+        CompletableFuture<List<Seat>> running = inFlight.putIfAbsent(key, computation);
+        if (running != null) {
+            recording.admission(Admission.COALESCED);
+            return await(running);
+        }
+
+        try {
+            admit(flightId, recording);
+        } catch (SeatRecommendationLimitException e) {
+            // Requests that joined in the meantime are rejected as well.
+            inFlight.remove(key, computation);
+            computation.completeExceptionally(e);
+            throw e;
+        }
+        try {
+            recording.admission(Admission.COMPUTED);
+            List<Seat> bestSeats = recommend(flightId, numSeatsRequired, nonNullDesiredFeatures, recording);
+            computation.complete(bestSeats);
+            return bestSeats;
+        } catch (RuntimeException | Error e) {
+            computation.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, computation);
+            release(flightId);
+        }
+    }
+
+    private List<Seat> recommend(Long flightId, int numSeatsRequired, List<SeatFeature> desiredFeatures,
+            Recording recording) {
+        // Fetch the flight's seat map; on a cache miss this loads the flight's seats.
+        long start = System.nanoTime();
+        Stage seatMapStage = seatMapCache.getIfPresent(flightId).isPresent() ? Stage.SEAT_MAP : Stage.SEAT_MAP_LOAD;
+        Optional<SeatMap> seatMap = seatMapCache.get(flightId);
+        recording.stage(seatMapStage, start);
+
+        // Find the best seat group if the flight exists and has enough free seats. Results
+        // are cached per seat map version, so only the first request after a change runs the finders.
+        List<Seat> bestSeats = Collections.emptyList();
+        if (seatMap.isPresent()) {
+            recording.cabin(seatMap.get());
+            if (seatMap.get().getAvailableCount() >= numSeatsRequired) {
+                bestSeats = recommendationCache.get(flightId, seatMap.get(), numSeatsRequired, desiredFeatures,
+                        () -> findBestSeatGroup(seatMap.get(), numSeatsRequired, desiredFeatures, recording));
+            }
+        }
+        if (bestSeats.isEmpty()) {
+            recording.emptyResult();
+        }
+        return bestSeats;
+    }
+
+    /**
+     * Counts a computation against the flight's limit.
+     *
+     * @throws SeatRecommendationLimitException if the flight is at its limit.
+     */
+    private void admit(Long flightId, Recording recording) {
+        computations.compute(flightId, (id, count) -> {
+            int current = count != null ? count : 0;
+            if (current >= maxConcurrentPerFlight) {
+                recording.admission(Admission.REJECTED);
+                throw new SeatRecommendationLimitException("Too many seat recommendations in progress for flight "
+                        + id);
+            }
+            return current + 1;
+        });
+    }
+
+    private void release(Long flightId) {
+        computations.computeIfPresent(flightId, (id, count) -> count > 1 ? count - 1 : null);
+    }
+
+    /**
+     * Waits for the result of an identical request, rethrowing its exception.
+     */
+    private static List<Seat> await(CompletableFuture<List<Seat>> computation) {
+        try {
+            return computation.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Retrieves alternative seat groups for a given flight, best first. The
+     * first option is the group {@link #getSeatRecommendations} recommends;
+     * contiguous groups come before mixed ones.
+     *
+     * @param flightId         The ID of the flight.
+     * @param numSeatsRequired The number of seats required.
+     * @param desiredFeatures  The list of desired seat features (can be empty).
+     * @param maxOptions       The maximum number of groups to return.
+     * @return Up to {@code maxOptions} distinct seat groups.
+     */
+    @Override
+    public List<List<Seat>> getSeatRecommendationOptions(Long flightId, int numSeatsRequired,
+            List<SeatFeature> desiredFeatures, int maxOptions) {
+        if (numSeatsRequired < 1 || maxOptions < 1) {
+            return Collections.emptyList();
+        }
+        List<SeatFeature> nonNullDesiredFeatures = (desiredFeatures != null) ? desiredFeatures
+                : Collections.emptyList();
+
+        return seatMapCache.get(flightId)
+                .filter(seatMap -> seatMap.getAvailableCount() >= numSeatsRequired)
+                .map(seatMap -> findSeatGroupOptions(seatMap, numSeatsRequired, nonNullDesiredFeatures, maxOptions))
                 .orElse(Collections.emptyList());
     }
 
     /**
-     * Retrieves the list of available (unoccupied) seats for a given flight.
+     * Allocates non-overlapping seat groups to several parties on the same
+     * flight, e.g. for a travel agent booking a group tour. All parties are
+     * placed on one snapshot of the seat map, largest party first (ties in
+     * request order), so small parties do not break up the blocks the large
+     * ones need. Each party gets the group {@link #getSeatRecommendations}
+     * would recommend on the seats left over by the parties placed before it.
+     * Nothing is held or booked.
      *
-     * @param flight The flight object.
-     * @return A list of available seats.
+     * @param flightId The ID of the flight.
+     * @param parties  The parties to seat.
+     * @return The seats of each party, in request order; empty for parties that
+     *         could not be seated.
      */
-    private List<Seat> getAvailableSeats(Flight flight) {
-        List<Seat> availableSeats = new ArrayList<>();
-        for (Seat seat : flight.getSeats()) {
-            if (!seat.isOccupied()) {
-                availableSeats.add(seat);
+    @Override
+    public List<List<Seat>> allocateParties(Long flightId, List<Party> parties) {
+        return seatMapCache.get(flightId)
+                .map(seatMap -> allocateParties(seatMap, parties))
+                .orElseGet(() -> Collections.nCopies(parties.size(), Collections.emptyList()));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (searchPool != null) {
+            searchPool.shutdownNow();
+        }
+    }
+
+    List<List<Seat>> allocateParties(SeatMap seatMap, List<Party> parties) {
+        Integer[] order = new Integer[parties.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        // Stable sort, so parties of the same size keep their request order.
+        Arrays.sort(order, Comparator.comparingInt((Integer i) -> parties.get(i).numSeatsRequired()).reversed());
+
+        List<List<Seat>> allocations = new ArrayList<>(Collections.nCopies(parties.size(), Collections.emptyList()));
+        SeatMap remaining = seatMap;
+        for (int i : order) {
+            Party party = parties.get(i);
+            int numSeats = party.numSeatsRequired();
+            if (numSeats < 1 || remaining.getAvailableCount() < numSeats) {
+                continue;
+            }
+            List<SeatFeature> features = party.desiredFeatures() != null ? party.desiredFeatures()
+                    : Collections.emptyList();
+            List<Seat> seats = findBestSeatGroup(remaining, numSeats, features);
+            if (!seats.isEmpty()) {
+                allocations.set(i, seats);
+                // Local copy only; the cached seat map is not touched.
+                remaining = remaining.withOccupancy(seats.stream().map(Seat::getId).toList(), true,
+                        remaining.getVersion());
             }
         }
-        return availableSeats;
+        return allocations;
+    }
+
+    private List<List<Seat>> findSeatGroupOptions(SeatMap seatMap, int numSeats, List<SeatFeature> features,
+            int maxOptions) {
+        List<List<Seat>> options = new ArrayList<>(
+                BitsetSeatFinder.findTopContiguousSeatGroups(seatMap, numSeats, features, maxOptions));
+        if (options.size() < maxOptions) {
+            // Mixed groups can repeat a contiguous one, so ask for enough to skip those. The finders
+            // return fresh seat copies, so groups are compared by their seat IDs.
+            Set<List<Long>> seen = new HashSet<>();
+            for (List<Seat> option : options) {
+                seen.add(option.stream().map(Seat::getId).toList());
+            }
+            for (List<Seat> group : BitsetSeatFinder.findTopMixedSeatGroups(seatMap, numSeats, features,
+                    maxOptions + options.size(), searchPool)) {
+                if (options.size() == maxOptions) {
+                    break;
+                }
+                if (seen.add(group.stream().map(Seat::getId).toList())) {
+                    options.add(group);
+                }
+            }
+        }
+        return options;
     }
 
     /**
      * Determines the best group of seats based on availability and seat features.
      *
-     * @param availableSeats List of available seats.
-     * @param numSeats       Number of seats required.
-     * @param features       Desired seat features.
+     * @param seatMap  Compiled seat map of the flight.
+     * @param numSeats Number of seats required.
+     * @param features Desired seat features.
      * @return A list of selected best seats.
      */
-    private List<Seat> findBestSeatGroup(List<Seat> availableSeats, int numSeats, List<SeatFeature> features) {
+    List<Seat> findBestSeatGroup(SeatMap seatMap, int numSeats, List<SeatFeature> features) {
+        return findBestSeatGroup(seatMap, numSeats, features, SeatRecommendationMetrics.DISABLED);
+    }
+
+    private List<Seat> findBestSeatGroup(SeatMap seatMap, int numSeats, List<SeatFeature> features,
+            Recording recording) {
         // Attempt to find a contiguous seat group first.
-        List<Seat> bestSeats = ContiguousSeatFinder.findBestContiguousSeatGroup(availableSeats, numSeats, features);
+        long start = System.nanoTime();
+        List<Seat> bestSeats = BitsetSeatFinder.findBestContiguousSeatGroup(seatMap, numSeats, features,
+                count -> recording.candidates(Stage.CONTIGUOUS, count));
+        recording.stage(Stage.CONTIGUOUS, start);
         if (!bestSeats.isEmpty()) {
             return bestSeats;
         }
 
         // If no contiguous group is found, fall back to a mixed seat group.
-        bestSeats = MixedSeatFinder.findBestMixedSeatGroup(availableSeats, numSeats, features);
+        recording.mixedFallback();
+        start = System.nanoTime();
+        bestSeats = BitsetSeatFinder.findBestMixedSeatGroup(seatMap, numSeats, features, searchPool,
+                count -> recording.candidates(Stage.MIXED, count));
+        recording.stage(Stage.MIXED, start);
         return bestSeats.isEmpty() ? Collections.emptyList() : bestSeats;
     }
-}
\ No newline at end of file
+
+    /**
+     * @param featureBits The desired features as a bit set, see
+     *                    {@link SeatMap#featureBits}.
+     */
+    private record Key(Long flightId, int numSeatsRequired, int featureBits) {
+    }
+}
@@ -0,0 +1,430 @@
+package FlightFinder.Backend.service.seatFinder;
+
+import FlightFinder.Backend.model.Seat;
+import FlightFinder.Backend.model.SeatFeature;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+
+/**
+ * Seat finder working on a compiled {@link SeatMap}.
+ *
+ * Returns the same contiguous groups as {@link ContiguousSeatFinder}, but
+ * scans rows with bit operations and sliding windows instead of building and
+ * sorting lists for every candidate. Mixed groups are searched on the 2D grid
+ * of free seats, so unlike the runs of consecutive seats
+ * {@link MixedSeatFinder} tries, the group with the smallest spread is always
+ * found, e.g. seats stacked across rows.
+ *
+ * On a seat map with a cabin layout, contiguous groups never span an aisle,
+ * the spread of mixed groups counts an aisle as one seat, and mixed groups
+ * stay within one cabin class.
+ */
+public class BitsetSeatFinder {
+
+    /**
+     * Grid size ({@code rows * rows * columns / 2}, the number of column steps of
+     * a search without pruning) from which the mixed search runs in parallel.
+     * Smaller grids are searched faster than tasks can be handed out.
+     */
+    static final long PARALLEL_THRESHOLD = 50_000;
+
+    /** Number of first rows a parallel mixed search task handles at least. */
+    private static final int MIN_BAND_ROWS = 4;
+
+    private static final LongConsumer NO_COUNT = count -> {
+    };
+
+    /**
+     * Finds the best contiguous group of free seats in a single row.
+     *
+     * @param seatMap  Compiled seat map of the flight.
+     * @param numSeats Number of seats required.
+     * @param features Desired seat features for prioritization.
+     * @return The best contiguous group of seats or an empty list if no valid group
+     *         is found.
+     */
+    public static List<Seat> findBestContiguousSeatGroup(SeatMap seatMap, int numSeats,
+            List<SeatFeature> features) {
+        return findBestContiguousSeatGroup(seatMap, numSeats, features, NO_COUNT);
+    }
+
+    /**
+     * Finds the best contiguous group like {@link
+     * #findBestContiguousSeatGroup(SeatMap, int, List)}, reporting the number of
+     * candidate groups it evaluated.
+     *
+     * @param seatMap    Compiled seat map of the flight.
+     * @param numSeats   Number of seats required.
+     * @param features   Desired seat features for prioritization.
+     * @param candidates Receives the number of candidate groups: every run of
+     *                   {@code numSeats} free seats within a row.
+     * @return The best contiguous group of seats or an empty list if no valid group
+     *         is found.
+     */
+    public static List<Seat> findBestContiguousSeatGroup(SeatMap seatMap, int numSeats,
+            List<SeatFeature> features, LongConsumer candidates) {
+        List<List<Seat>> groups = findTopContiguousSeatGroups(seatMap, numSeats, features, 1, candidates);
+        return groups.isEmpty() ? new ArrayList<>() : groups.get(0);
+    }
+
+    /**
+     * Finds the {@code k} best contiguous groups of free seats in a single row,
+     * best first. Groups are ranked like in
+     * {@link #findBestContiguousSeatGroup}, so the first one is the best group.
+     *
+     * @param seatMap  Compiled seat map of the flight.
+     * @param numSeats Number of seats required.
+     * @param features Desired seat features for prioritization.
+     * @param k        Maximum number of groups to return.
+     * @return Up to {@code k} contiguous seat groups.
+     */
+    public static List<List<Seat>> findTopContiguousSeatGroups(SeatMap seatMap, int numSeats,
+            List<SeatFeature> features, int k) {
+        return findTopContiguousSeatGroups(seatMap, numSeats, features, k, NO_COUNT);
+    }
+
+    /**
+     * Finds the {@code k} best contiguous groups like {@link
+     * #findTopContiguousSeatGroups(SeatMap, int, List, int)}, reporting the
+     * number of candidate groups it evaluated.
+     *
+     * @param seatMap    Compiled seat map of the flight.
+     * @param numSeats   Number of seats required.
+     * @param features   Desired seat features for prioritization.
+     * @param k          Maximum number of groups to return.
+     * @param candidates Receives the number of candidate groups: every run of
+     *                   {@code numSeats} free seats within a row.
+     * @return Up to {@code k} contiguous seat groups.
+     */
+    public static List<List<Seat>> findTopContiguousSeatGroups(SeatMap seatMap, int numSeats,
+            List<SeatFeature> features, int k, LongConsumer candidates) {
+        if (numSeats < 1 || numSeats > SeatMap.MAX_ROW_WIDTH || k < 1) {
+            return new ArrayList<>();
+        }
+
+        int featureBits = SeatMap.featureBits(features);
+        long window = numSeats == SeatMap.MAX_ROW_WIDTH ? -1L : (1L << numSeats) - 1;
+
+        long aisles = seatMap.getAisleMask();
+        TopK best = new TopK(k);
+        for (int row = 0; row < seatMap.getRowCount(); row++) {
+            // Every set bit marks the first seat of a run of numSeats free seats.
+            long starts = windowStarts(seatMap.getFreeMask(row), numSeats, aisles);
+            best.countEvaluated(Long.bitCount(starts));
+            while (starts != 0) {
+                int bit = Long.numberOfTrailingZeros(starts);
+                int position = row * SeatMap.MAX_ROW_WIDTH + bit;
+                // Higher scores first; rows and seats are visited in order, so ties keep the earlier group.
+                best.offer(-seatMap.featureScore(row, window << bit, featureBits), position, position);
+                starts &= starts - 1;
+            }
+        }
+
+        candidates.accept(best.evaluated());
+        return collectGroups(seatMap, best, numSeats);
+    }
+
+    /**
+     * Finds the group of free seats with the smallest spread, maximising the
+     * feature score second. The spread is the difference between the highest
+     * and lowest row number plus that between the highest and lowest column
+     * position, so four seats stacked two by two in adjacent rows have a
+     * spread of 2.
+     *
+     * @param seatMap  Compiled seat map of the flight.
+     * @param numSeats Number of seats required.
+     * @param features Desired seat features for prioritization.
+     * @return The best group of mixed seats or an empty list if no valid group is
+     *         found.
+     */
+    public static List<Seat> findBestMixedSeatGroup(SeatMap seatMap, int numSeats, List<SeatFeature> features) {
+        return findBestMixedSeatGroup(seatMap, numSeats, features, null);
+    }
+
+    /**
+     * Finds the best mixed group like {@link #findBestMixedSeatGroup(SeatMap,
+     * int, List)}, searching large cabins in parallel on the given pool.
+     *
+     * @param seatMap  Compiled seat map of the flight.
+     * @param numSeats Number of seats required.
+     * @param features Desired seat features for prioritization.
+     * @param pool     Pool to search large cabins on, or null to always search
+     *                 in the calling thread.
+     * @return The best group of mixed seats or an empty list if no valid group is
+     *         found.
+     */
+    public static List<Seat> findBestMixedSeatGroup(SeatMap seatMap, int numSeats, List<SeatFeature> features,
+            ForkJoinPool pool) {
+        return findBestMixedSeatGroup(seatMap, numSeats, features, pool, NO_COUNT);
+    }
+
+    /**
+     * Finds the best mixed group like {@link #findBestMixedSeatGroup(SeatMap,
+     * int, List, ForkJoinPool)}, reporting the number of candidate groups it
+     * evaluated.
+     *
+     * @param seatMap    Compiled seat map of the flight.
+     * @param numSeats   Number of seats required.
+     * @param features   Desired seat features for prioritization.
+     * @param pool       Pool to search large cabins on, or null to always search
+     *                   in the calling thread.
+     * @param candidates Receives the number of candidate groups, see
+     *                   {@link #findTopMixedSeatGroups(SeatMap, int, List, int,
+     *                   ForkJoinPool, LongConsumer)}.
+     * @return The best group of mixed seats or an empty list if no valid group is
+     *         found.
+     */
+    public static List<Seat> findBestMixedSeatGroup(SeatMap seatMap, int numSeats, List<SeatFeature> features,
+            ForkJoinPool pool, LongConsumer candidates) {
+        List<List<Seat>> groups = findTopMixedSeatGroups(seatMap, numSeats, features, 1, pool, candidates);
+        return groups.isEmpty() ? new ArrayList<>() : groups.get(0);
+    }
+
+    /**
+     * Finds the {@code k} best groups of free seats with different bounding
+     * rectangles, best first. Groups are ranked like in
+     * {@link #findBestMixedSeatGroup}, then by their first row, number of rows
+     * and first column.
+     *
+     * The search runs on a {@link FreeSeatGrid} of the rows and column positions
+     * that have free seats. For every pair of first and last row it slides the
+     * narrowest column range holding {@code numSeats} free seats across the
+     * grid, counting seats with prefix sums. With {@code R} such rows and
+     * {@code C} such columns, that is {@code R * (R + 1) / 2} row pairs with
+     * {@code O(C)} constant time counts each; a 500-seat, 10-abreast cabin at
+     * 95% occupancy has 25 free seats, so at most 325 row pairs of 10 columns.
+     * Row pairs spreading further than the {@code k}-th best group found so far
+     * are skipped.
+     *
+     * @param seatMap  Compiled seat map of the flight.
+     * @param numSeats Number of seats required.
+     * @param features Desired seat features for prioritization.
+     * @param k        Maximum number of groups to return.
+     * @return Up to {@code k} mixed seat groups.
+     */
+    public static List<List<Seat>> findTopMixedSeatGroups(SeatMap seatMap, int numSeats,
+            List<SeatFeature> features, int k) {
+        return findTopMixedSeatGroups(seatMap, numSeats, features, k, null);
+    }
+
+    /**
+     * Finds the {@code k} best mixed groups like
+     * {@link #findTopMixedSeatGroups(SeatMap, int, List, int)}, searching large
+     * cabins in parallel on the given pool.
+     *
+     * Grids of at least {@link #PARALLEL_THRESHOLD} are split into bands of
+     * first rows, which are searched as fork/join tasks, each keeping its own
+     * {@code k} best groups. The tasks share the best {@code k}-th rank found so
+     * far to skip row pairs, and their results are merged by the same rank and
+     * enumeration order as the sequential search, so both return the same
+     * groups.
+     *
+     * @param seatMap  Compiled seat map of the flight.
+     * @param numSeats Number of seats required.
+     * @param features Desired seat features for prioritization.
+     * @param k        Maximum number of groups to return.
+     * @param pool     Pool to search large cabins on, or null to always search
+     *                 in the calling thread.
+     * @return Up to {@code k} mixed seat groups.
+     */
+    public static List<List<Seat>> findTopMixedSeatGroups(SeatMap seatMap, int numSeats,
+            List<SeatFeature> features, int k, ForkJoinPool pool) {
+        return findTopMixedSeatGroups(seatMap, numSeats, features, k, pool, NO_COUNT);
+    }
+
+    /**
+     * Finds the {@code k} best mixed groups like {@link
+     * #findTopMixedSeatGroups(SeatMap, int, List, int, ForkJoinPool)},
+     * reporting the number of candidate groups it evaluated: the rectangles
+     * within a cabin class that {@code numSeats} free seats can exactly span,
+     * except those skipped for spreading further than the {@code k}-th best
+     * group. It depends on the order bands were searched in, so parallel
+     * searches may evaluate more than sequential ones.
+     *
+     * @param seatMap    Compiled seat map of the flight.
+     * @param numSeats   Number of seats required.
+     * @param features   Desired seat features for prioritization.
+     * @param k          Maximum number of groups to return.
+     * @param pool       Pool to search large cabins on, or null to always search
+     *                   in the calling thread.
+     * @param candidates Receives the number of candidate groups.
+     * @return Up to {@code k} mixed seat groups.
+     */
+    public static List<List<Seat>> findTopMixedSeatGroups(SeatMap seatMap, int numSeats,
+            List<SeatFeature> features, int k, ForkJoinPool pool, LongConsumer candidates) {
+        if (numSeats < 1 || k < 1 || seatMap.getAvailableCount() < numSeats) {
+            return new ArrayList<>();
+        }
+
+        FreeSeatGrid grid = new FreeSeatGrid(seatMap, SeatMap.featureBits(features));
+        long rows = grid.getRowCount();
+        TopK best;
+        if (pool != null && pool.getParallelism() > 1
+                && rows * rows * grid.getColumnCount() / 2 >= PARALLEL_THRESHOLD) {
+            best = pool.invoke(new BandSearch(grid, numSeats, k, 0, grid.getRowCount(),
+                    new AtomicLong(Long.MAX_VALUE)));
+        } else {
+            best = new TopK(k);
+            searchRectangles(grid, numSeats, best, 0, grid.getRowCount(), null);
+        }
+
+        candidates.accept(best.evaluated());
+        List<List<Seat>> groups = new ArrayList<>(best.size());
+        for (long rectangle : best.candidatesBestFirst()) {
+            groups.add(grid.collect((int) (rectangle >>> 48), (int) (rectangle >>> 32) & 0xFFFF,
+                    (int) (rectangle >>> 16) & 0xFFFF, (int) rectangle & 0xFFFF, numSeats));
+        }
+        return groups;
+    }
+
+    /**
+     * Returns a mask with a bit set for every position that starts a run of
+     * {@code length} free seats not interrupted by an aisle.
+     *
+     * @param free   Free seats of a row.
+     * @param length Length of the run.
+     * @param aisles Seats with an aisle after them, see
+     *               {@link SeatMap#getAisleMask()}.
+     */
+    static long windowStarts(long free, int length, long aisles) {
+        long starts = free;
+        long open = free & ~aisles;
+        for (int k = 1; k < length && starts != 0; k++) {
+            // The seat before the k-th seat of the run must be free and not followed by an aisle.
+            starts &= (free >>> k) & (open >>> (k - 1));
+        }
+        return starts;
+    }
+
+    /**
+     * Offers every rectangle of the grid within a cabin class that
+     * {@code numSeats} free seats can exactly span to {@code best}, and counts
+     * them as evaluated. Such a rectangle has at least {@code numSeats} free
+     * seats, but fewer once any of its border rows or columns is removed, so
+     * every group taken from it spans all of it.
+     *
+     * Only rectangles whose first grid row is in {@code [fromTop, toTop)} are
+     * searched. {@code bound}, if not null, is shared with searches of other
+     * rows: the lowest rank some search cannot beat any more with its
+     * {@code k}-th best rectangle, so no search needs to look at worse ones.
+     */
+    private static void searchRectangles(FreeSeatGrid grid, int numSeats, TopK best, int fromTop, int toTop,
+            AtomicLong bound) {
+        long found = 0;
+        long limit = Long.MAX_VALUE;
+        for (int top = fromTop; top < toTop; top++) {
+            for (int bottom = top; bottom < grid.getRowCount()
+                    && grid.getCabinClass(bottom) == grid.getCabinClass(top); bottom++) {
+                limit = bound == null ? best.worstRank() : Math.min(best.worstRank(), bound.get());
+                int rowSpread = grid.getRowNumber(bottom) - grid.getRowNumber(top);
+                if (((long) rowSpread << 32) > limit) {
+                    break; // Lower rows only spread further.
+                }
+                if (grid.count(top, bottom, 0, grid.getColumnCount() - 1) < numSeats) {
+                    continue;
+                }
+                // Narrowest column range starting at each column; it only moves right.
+                int right = 0;
+                for (int left = 0; left < grid.getColumnCount(); left++) {
+                    right = Math.max(right, left);
+                    while (right < grid.getColumnCount() && grid.count(top, bottom, left, right) < numSeats) {
+                        right++;
+                    }
+                    if (right == grid.getColumnCount()) {
+                        break;
+                    }
+                    int spread = rowSpread + grid.getPosition(right) - grid.getPosition(left);
+                    if (((long) spread << 32) > limit) {
+                        continue;
+                    }
+                    if (grid.count(top, bottom, left + 1, right) >= numSeats
+                            || grid.count(top + 1, bottom, left, right) >= numSeats
+                            || grid.count(top, bottom - 1, left, right) >= numSeats) {
+                        continue; // A smaller rectangle holds the same groups.
+                    }
+                    found++;
+                    int score = grid.bestScore(top, bottom, left, right, numSeats);
+                    // Lowest spread first, then highest score; ties keep the rectangle found first.
+                    long rank = ((long) spread << 32) | (Integer.MAX_VALUE - score);
+                    // Grid rows and columns are below 2^16: there is at most one per seat. As the right
+                    // column follows from the others, rectangles found first have lower numbers.
+                    long rectangle = (long) top << 48 | (long) bottom << 32 | (long) left << 16 | right;
+                    best.offer(rank, rectangle, rectangle);
+                    if (bound != null && best.worstRank() < limit) {
+                        bound.accumulateAndGet(best.worstRank(), Math::min);
+                    }
+                }
+            }
+        }
+        best.countEvaluated(found);
+    }
+
+    private static List<List<Seat>> collectGroups(SeatMap seatMap, TopK best, int numSeats) {
+        List<List<Seat>> groups = new ArrayList<>(best.size());
+        for (long position : best.candidatesBestFirst()) {
+            groups.add(collectFreeSeats(seatMap, (int) position / SeatMap.MAX_ROW_WIDTH,
+                    (int) position % SeatMap.MAX_ROW_WIDTH, numSeats));
+        }
+        return groups;
+    }
+
+    /**
+     * Collects {@code numSeats} free seats in row/seat order, starting at the
+     * given position, as detached copies with their current occupancy.
+     */
+    private static List<Seat> collectFreeSeats(SeatMap seatMap, int startRow, int startBit, int numSeats) {
+        List<Seat> group = new ArrayList<>(numSeats);
+        long free = seatMap.getFreeMask(startRow) & (-1L << startBit);
+        int row = startRow;
+        while (group.size() < numSeats) {
+            while (free == 0) {
+                free = seatMap.getFreeMask(++row);
+            }
+            group.add(seatMap.copySeat(row, Long.numberOfTrailingZeros(free)));
+            free &= free - 1;
+        }
+        return group;
+    }
+
+    /**
+     * Mixed search of the rectangles starting in a band of grid rows, split in
+     * halves until the bands are small enough.
+     */
+    private static final class BandSearch extends RecursiveTask<TopK> {
+        private final FreeSeatGrid grid;
+        private final int numSeats;
+        private final int k;
+        private final int fromTop;
+        private final int toTop;
+        private final AtomicLong bound;
+
+        BandSearch(FreeSeatGrid grid, int numSeats, int k, int fromTop, int toTop, AtomicLong bound) {
+            this.grid = grid;
+            this.numSeats = numSeats;
+            this.k = k;
+            this.fromTop = fromTop;
+            this.toTop = toTop;
+            this.bound = bound;
+        }
+
+        @Override
+        protected TopK compute() {
+            if (toTop - fromTop <= MIN_BAND_ROWS) {
+                TopK best = new TopK(k);
+                searchRectangles(grid, numSeats, best, fromTop, toTop, bound);
+                return best;
+            }
+            int middle = (fromTop + toTop) >>> 1;
+            BandSearch lower = new BandSearch(grid, numSeats, k, middle, toTop, bound);
+            lower.fork();
+            TopK best = new BandSearch(grid, numSeats, k, fromTop, middle, bound).compute();
+            best.offerAll(lower.join());
+            return best;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package FlightFinder.Backend.service.seatFinder;
+
+import FlightFinder.Backend.model.CabinClass;
+import FlightFinder.Backend.model.Seat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 2D prefix sums over the free seats of a {@link SeatMap}, counting the free
+ * seats in any rectangle of rows and column positions, in total and per
+ * feature score, in constant time.
+ *
+ * Only the rows and column positions that have a free seat are kept, so the
+ * grid of a nearly full cabin is small. Grid rows and columns are indexes into
+ * those: a rectangle from grid row {@code top} to {@code bottom} and grid
+ * column {@code left} to {@code right} covers the seats of rows
+ * {@link #getRowNumber(int) getRowNumber(top)} to
+ * {@code getRowNumber(bottom)} with column positions
+ * {@link #getPosition(int) getPosition(left)} to {@code getPosition(right)}.
+ */
+final class FreeSeatGrid {
+
+    private final SeatMap seatMap;
+    private final int featureBits;
+    private final int maxScore;
+    /** Seat map row of every grid row. */
+    private final int[] mapRows;
+    /** Column position of every grid column, ascending. */
+    private final int[] positions;
+    private final int width;
+    /**
+     * {@code counts[score][r * width + c]}: free seats with that feature score
+     * in grid rows {@code < r} and grid columns {@code < c}.
+     */
+    private final int[][] counts;
+    private final int[] totals;
+
+    FreeSeatGrid(SeatMap seatMap, int featureBits) {
+        this.seatMap = seatMap;
+        this.featureBits = featureBits;
+        this.maxScore = Integer.bitCount(featureBits);
+
+        int rowCount = 0;
+        int[] mapRows = new int[seatMap.getRowCount()];
+        int[] allPositions = new int[seatMap.getAvailableCount()];
+        int seatCount = 0;
+        for (int row = 0; row < seatMap.getRowCount(); row++) {
+            long free = seatMap.getFreeMask(row);
+            if (free == 0) {
+                continue;
+            }
+            mapRows[rowCount++] = row;
+            while (free != 0) {
+                allPositions[seatCount++] = seatMap.getColumnPosition(row, Long.numberOfTrailingZeros(free));
+                free &= free - 1;
+            }
+        }
+        this.mapRows = Arrays.copyOf(mapRows, rowCount);
+
+        Arrays.sort(allPositions, 0, seatCount);
+        int columnCount = 0;
+        for (int i = 0; i < seatCount; i++) {
+            if (columnCount == 0 || allPositions[columnCount - 1] != allPositions[i]) {
+                allPositions[columnCount++] = allPositions[i];
+            }
+        }
+        this.positions = Arrays.copyOf(allPositions, columnCount);
+        this.width = columnCount + 1;
+
+        counts = new int[maxScore + 1][(rowCount + 1) * width];
+        totals = new int[(rowCount + 1) * width];
+        for (int r = 0; r < rowCount; r++) {
+            int row = this.mapRows[r];
+            long free = seatMap.getFreeMask(row);
+            while (free != 0) {
+                int bit = Long.numberOfTrailingZeros(free);
+                free &= free - 1;
+                int c = Arrays.binarySearch(positions, seatMap.getColumnPosition(row, bit));
+                int score = seatMap.featureScore(row, 1L << bit, featureBits);
+                counts[score][(r + 1) * width + c + 1]++;
+                totals[(r + 1) * width + c + 1]++;
+            }
+        }
+        for (int[] cells : counts) {
+            accumulate(cells);
+        }
+        accumulate(totals);
+    }
+
+    int getRowCount() {
+        return mapRows.length;
+    }
+
+    int getColumnCount() {
+        return positions.length;
+    }
+
+    int getRowNumber(int r) {
+        return seatMap.getRowNumber(mapRows[r]);
+    }
+
+    CabinClass getCabinClass(int r) {
+        return seatMap.getCabinClass(mapRows[r]);
+    }
+
+    int getPosition(int c) {
+        return positions[c];
+    }
+
+    /**
+     * @return The number of free seats in the rectangle, 0 if it is empty.
+     */
+    int count(int top, int bottom, int left, int right) {
+        return sum(totals, top, bottom, left, right);
+    }
+
+    /**
+     * @return The highest total feature score of {@code numSeats} free seats of
+     *         the rectangle, which must have that many.
+     */
+    int bestScore(int top, int bottom, int left, int right, int numSeats) {
+        int remaining = numSeats;
+        int total = 0;
+        for (int score = maxScore; score > 0 && remaining > 0; score--) {
+            int taken = Math.min(remaining, sum(counts[score], top, bottom, left, right));
+            total += taken * score;
+            remaining -= taken;
+        }
+        return total;
+    }
+
+    /**
+     * Collects {@code numSeats} free seats of the rectangle with the
+     * {@link #bestScore best score}, in row/seat order. Of the lowest score
+     * taken, the first seats in row/seat order are taken. The seats are
+     * detached copies with their current occupancy, see {@link SeatMap#copySeat}.
+     */
+    List<Seat> collect(int top, int bottom, int left, int right, int numSeats) {
+        int remaining = numSeats;
+        int lowest = 0;
+        int quota = 0;
+        for (int score = maxScore; score >= 0; score--) {
+            int taken = Math.min(remaining, sum(counts[score], top, bottom, left, right));
+            remaining -= taken;
+            if (remaining == 0) {
+                lowest = score;
+                quota = taken;
+                break;
+            }
+        }
+
+        List<Seat> group = new ArrayList<>(numSeats);
+        for (int r = top; r <= bottom; r++) {
+            int row = mapRows[r];
+            long free = seatMap.getFreeMask(row);
+            while (free != 0) {
+                int bit = Long.numberOfTrailingZeros(free);
+                free &= free - 1;
+                int position = seatMap.getColumnPosition(row, bit);
+                if (position < positions[left] || position > positions[right]) {
+                    continue;
+                }
+                int score = seatMap.featureScore(row, 1L << bit, featureBits);
+                if (score > lowest || (score == lowest && quota-- > 0)) {
+                    group.add(seatMap.copySeat(row, bit));
+                }
+            }
+        }
+        return group;
+    }
+
+    private int sum(int[] cells, int top, int bottom, int left, int right) {
+        if (top > bottom || left > right) {
+            return 0;
+        }
+        int below = (bottom + 1) * width;
+        int above = top * width;
+        return cells[below + right + 1] - cells[below + left] - cells[above + right + 1] + cells[above + left];
+    }
+
+    private void accumulate(int[] cells) {
+        for (int i = width; i < cells.length; i++) {
+            if (i % width != 0) {
+                cells[i] += cells[i - width] + cells[i - 1] - cells[i - width - 1];
+            }
+        }
+    }
+}
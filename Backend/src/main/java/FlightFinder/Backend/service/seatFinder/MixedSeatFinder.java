@@ -40,7 +40,7 @@ public class MixedSeatFinder {
      */
     private static List<Seat> sortSeats(List<Seat> availableSeats) {
         List<Seat> sortedSeats = new ArrayList<>(availableSeats);
-        sortedSeats.sort(Comparator.comparing(Seat::getRow)
+        sortedSeats.sort(Comparator.comparing(Seat::getRow, SeatFinderUtils.ROW_ORDER)
                 .thenComparingInt(Seat::getSeatNumber));
         return sortedSeats;
     }
@@ -86,8 +86,8 @@ public class MixedSeatFinder {
      * Calculates a "spread" metric for a group of seats.
      *
      * The spread is defined as the sum of:
-     * - The row spread: difference between the max and min row (using ASCII values
-     * of row letters).
+     * - The row spread: difference between the max and min row number (see
+     * {@link SeatFinderUtils#rowNumber}).
      * - The seat spread: difference between the max and min seat numbers.
      * A smaller spread indicates that the seats are closer together.
      *
@@ -96,10 +96,10 @@ public class MixedSeatFinder {
      */
     private static int calculateSpread(List<Seat> group) {
         int minRow = group.stream()
-                .mapToInt(seat -> seat.getRow().charAt(0)) // Convert row letters to ASCII values
+                .mapToInt(seat -> SeatFinderUtils.rowNumber(seat.getRow()))
                 .min().orElse(0);
         int maxRow = group.stream()
-                .mapToInt(seat -> seat.getRow().charAt(0))
+                .mapToInt(seat -> SeatFinderUtils.rowNumber(seat.getRow()))
                 .max().orElse(0);
         int rowSpread = maxRow - minRow;
 
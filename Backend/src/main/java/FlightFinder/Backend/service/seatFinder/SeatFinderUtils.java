@@ -8,6 +8,41 @@ import java.util.List;
 
 public class SeatFinderUtils {
 
+    /** Orders row labels by row number, see {@link #rowNumber}. */
+    public static final Comparator<String> ROW_ORDER = Comparator.comparingInt(SeatFinderUtils::rowNumber)
+            .thenComparing(Comparator.naturalOrder());
+
+    /**
+     * Gives the number of a row from its label. Numeric labels ("1" to "60")
+     * are read as numbers, letters ("A" to "Z", then "AA") are counted like
+     * spreadsheet columns, so "A" is 1 and "Z" is 26. Any other label falls back
+     * to the code of its first character.
+     *
+     * @param rowLabel The row of a seat.
+     * @return The row number.
+     */
+    public static int rowNumber(String rowLabel) {
+        if (rowLabel.isEmpty()) {
+            return 0;
+        }
+        boolean digits = Character.isDigit(rowLabel.charAt(0));
+        int number = 0;
+        for (int i = 0; i < rowLabel.length(); i++) {
+            char c = rowLabel.charAt(i);
+            if (digits && c >= '0' && c <= '9') {
+                number = number * 10 + (c - '0');
+            } else if (!digits && c >= 'A' && c <= 'Z') {
+                number = number * 26 + (c - 'A' + 1);
+            } else {
+                return rowLabel.charAt(0);
+            }
+            if (number > 1_000_000) {
+                return rowLabel.charAt(0);
+            }
+        }
+        return number;
+    }
+
     /**
      * Creates a comparator for seat groups based on feature score, row, and seat
      * number.
@@ -21,10 +56,11 @@ public class SeatFinderUtils {
      * @return A comparator for sorting seat groups.
      */
     public static Comparator<List<Seat>> createGroupComparator(List<SeatFeature> features) {
+        int desiredMask = SeatFeature.toMask(features);
         return Comparator
-                .comparingInt((List<Seat> group) -> calculateFeatureScore(group, features))
+                .comparingInt((List<Seat> group) -> calculateFeatureScore(group, desiredMask))
                 .reversed() // Higher scores are better, so reverse the order
-                .thenComparing(group -> group.get(0).getRow()) // Prefer groups in earlier rows
+                .thenComparing(group -> group.get(0).getRow(), ROW_ORDER) // Prefer groups in earlier rows
                 .thenComparingInt(group -> group.get(0).getSeatNumber()); // Prefer groups with smaller seat numbers
     }
 
@@ -32,16 +68,17 @@ public class SeatFinderUtils {
      * Calculates a feature score for a seat group.
      *
      * The score is determined by counting how many desired features are present
-     * in the given group of seats.
+     * in the given group of seats, with one bit operation per seat.
      *
-     * @param group           The list of seats in the group.
-     * @param desiredFeatures The list of features to match.
+     * @param group       The list of seats in the group.
+     * @param desiredMask The features to match, see {@link SeatFeature#toMask}.
      * @return The total number of desired features found in the group.
      */
-    private static int calculateFeatureScore(List<Seat> group, List<SeatFeature> desiredFeatures) {
-        return (int) group.stream()
-                .flatMap(seat -> seat.getFeatures().stream()) // Collect all seat features
-                .filter(desiredFeatures::contains) // Keep only the desired features
-                .count(); // Count the matching features
+    private static int calculateFeatureScore(List<Seat> group, int desiredMask) {
+        int score = 0;
+        for (Seat seat : group) {
+            score += Integer.bitCount(SeatFeature.toMask(seat.getFeatures()) & desiredMask);
+        }
+        return score;
     }
 }
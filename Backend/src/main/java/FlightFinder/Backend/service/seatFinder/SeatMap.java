@@ -0,0 +1,530 @@
+package FlightFinder.Backend.service.seatFinder;
+
+import FlightFinder.Backend.model.CabinClass;
+import FlightFinder.Backend.model.CabinLayout;
+import FlightFinder.Backend.model.Seat;
+import FlightFinder.Backend.model.SeatFeature;
+
+import java.util.*;
+
+/**
+ * Compiled, bit-packed view of a flight's seats.
+ *
+ * Every row is stored as a 64-bit mask where bit {@code i} stands for seat
+ * number {@code rowBase + i}. Besides the "seat exists" and "seat is free"
+ * masks, there is one mask per {@link SeatFeature}, so the seat finders can
+ * test availability and count features with plain bit operations.
+ *
+ * A seat map compiled with a {@link CabinLayout} is a dense grid: one row per
+ * row of the layout and bit {@code i} for column {@code i} (seat number
+ * {@code i + 1}), so seats are placed without sorting and the layout's aisles
+ * and cabin classes are known. Without a layout the rows are those that have
+ * seats, in row number order.
+ *
+ * Seats can also be held: a held seat is no longer free, but not occupied in
+ * the database yet either. Held seats are reported as occupied to clients.
+ *
+ * A seat map is never modified once it has been handed out: occupancy changes
+ * produce a new map (sharing the static layout) with a new version number.
+ */
+public class SeatMap {
+
+    /** Maximum number of seat positions a single row can span. */
+    public static final int MAX_ROW_WIDTH = Long.SIZE;
+
+    private static final SeatFeature[] FEATURES = SeatFeature.values();
+
+    private final CabinLayout layout;
+    private final String[] rowLabels;
+    private final int[] rowNumbers;
+    private final int[] rowBase;
+    private final Seat[][] seats;
+    private final long[] present;
+    private final long[][] featureMasks;
+    private final Map<Long, Integer> positionsById;
+    private final long[] free;
+    private final long[] held;
+    private final long version;
+
+    private SeatMap(CabinLayout layout, String[] rowLabels, int[] rowNumbers, int[] rowBase, Seat[][] seats,
+            long[] present, long[][] featureMasks, Map<Long, Integer> positionsById, long[] free, long[] held,
+            long version) {
+        this.layout = layout;
+        this.rowLabels = rowLabels;
+        this.rowNumbers = rowNumbers;
+        this.rowBase = rowBase;
+        this.seats = seats;
+        this.present = present;
+        this.featureMasks = featureMasks;
+        this.positionsById = positionsById;
+        this.free = free;
+        this.held = held;
+        this.version = version;
+    }
+
+    /**
+     * Compiles the given seats into a seat map without a layout. Rows are
+     * ordered the same way the seat finders order them (by row number, see
+     * {@link SeatFinderUtils#rowNumber}), occupied seats are kept but not
+     * marked as free.
+     *
+     * @param allSeats All seats of a flight.
+     * @return The compiled seat map.
+     * @throws IllegalArgumentException if a row spans more than
+     *                                  {@link #MAX_ROW_WIDTH} seat numbers.
+     */
+    public static SeatMap compile(Collection<Seat> allSeats) {
+        return compile(allSeats, 0);
+    }
+
+    /**
+     * Compiles the given seats into a seat map with the given version.
+     *
+     * @param allSeats All seats of a flight.
+     * @param version  Version number of the occupancy state.
+     * @return The compiled seat map.
+     * @see #compile(Collection)
+     */
+    public static SeatMap compile(Collection<Seat> allSeats, long version) {
+        return compile(allSeats, null, version);
+    }
+
+    /**
+     * Compiles the given seats into a seat map with the given version.
+     *
+     * @param allSeats All seats of a flight.
+     * @param layout   Cabin layout of the flight's aircraft, or null if it is
+     *                 not known.
+     * @param version  Version number of the occupancy state.
+     * @return The compiled seat map.
+     * @throws IllegalArgumentException if a seat is not part of the layout, or
+     *                                  without a layout, if a row spans more
+     *                                  than {@link #MAX_ROW_WIDTH} seat numbers.
+     */
+    public static SeatMap compile(Collection<Seat> allSeats, CabinLayout layout, long version) {
+        if (layout != null) {
+            return compileGrid(allSeats, layout, version);
+        }
+
+        // Group seats by row label, keeping the rows sorted.
+        TreeMap<String, List<Seat>> seatsByRow = new TreeMap<>(SeatFinderUtils.ROW_ORDER);
+        for (Seat seat : allSeats) {
+            seatsByRow.computeIfAbsent(seat.getRow(), r -> new ArrayList<>()).add(seat);
+        }
+
+        int rowCount = seatsByRow.size();
+        String[] rowLabels = new String[rowCount];
+        int[] rowNumbers = new int[rowCount];
+        int[] rowBase = new int[rowCount];
+        Seat[][] seats = new Seat[rowCount][];
+        long[] present = new long[rowCount];
+        long[] free = new long[rowCount];
+        long[][] featureMasks = new long[FEATURES.length][rowCount];
+        Map<Long, Integer> positionsById = new HashMap<>();
+
+        int r = 0;
+        for (Map.Entry<String, List<Seat>> entry : seatsByRow.entrySet()) {
+            List<Seat> rowSeats = entry.getValue();
+            int min = Integer.MAX_VALUE;
+            int max = Integer.MIN_VALUE;
+            for (Seat seat : rowSeats) {
+                min = Math.min(min, seat.getSeatNumber());
+                max = Math.max(max, seat.getSeatNumber());
+            }
+            if (max - min >= MAX_ROW_WIDTH) {
+                throw new IllegalArgumentException("Row " + entry.getKey() + " spans more than "
+                        + MAX_ROW_WIDTH + " seats");
+            }
+
+            rowLabels[r] = entry.getKey();
+            rowNumbers[r] = SeatFinderUtils.rowNumber(entry.getKey());
+            rowBase[r] = min;
+            seats[r] = new Seat[max - min + 1];
+            for (Seat seat : rowSeats) {
+                place(seat, r, seat.getSeatNumber() - min, seats, present, free, featureMasks, positionsById);
+            }
+            r++;
+        }
+
+        return new SeatMap(null, rowLabels, rowNumbers, rowBase, seats, present, featureMasks, positionsById, free,
+                new long[rowCount], version);
+    }
+
+    /**
+     * Places every seat at its row and column of the layout's grid in a single
+     * pass.
+     */
+    private static SeatMap compileGrid(Collection<Seat> allSeats, CabinLayout layout, long version) {
+        int rowCount = layout.getRowCount();
+        String[] rowLabels = new String[rowCount];
+        int[] rowNumbers = new int[rowCount];
+        int[] rowBase = new int[rowCount];
+        Seat[][] seats = new Seat[rowCount][layout.getColumnCount()];
+        for (int r = 0; r < rowCount; r++) {
+            rowNumbers[r] = layout.getFirstRow() + r;
+            rowLabels[r] = String.valueOf(rowNumbers[r]);
+            rowBase[r] = 1;
+        }
+        long[] present = new long[rowCount];
+        long[] free = new long[rowCount];
+        long[][] featureMasks = new long[FEATURES.length][rowCount];
+        Map<Long, Integer> positionsById = new HashMap<>();
+
+        for (Seat seat : allSeats) {
+            int r = layout.rowIndex(seat.getRow());
+            int bit = seat.getSeatNumber() - 1;
+            if (r < 0 || bit < 0 || bit >= layout.getColumnCount()) {
+                throw new IllegalArgumentException("Seat " + seat.getRow() + "/" + seat.getSeatNumber()
+                        + " is not part of the layout " + layout.getColumns());
+            }
+            place(seat, r, bit, seats, present, free, featureMasks, positionsById);
+        }
+
+        return new SeatMap(layout, rowLabels, rowNumbers, rowBase, seats, present, featureMasks, positionsById,
+                free, new long[rowCount], version);
+    }
+
+    private static void place(Seat seat, int r, int bit, Seat[][] seats, long[] present, long[] free,
+            long[][] featureMasks, Map<Long, Integer> positionsById) {
+        long mask = 1L << bit;
+        seats[r][bit] = seat;
+        present[r] |= mask;
+        if (seat.getId() != null) {
+            positionsById.put(seat.getId(), r * MAX_ROW_WIDTH + bit);
+        }
+        if (!seat.isOccupied()) {
+            free[r] |= mask;
+        }
+        for (int bits = SeatFeature.toMask(seat.getFeatures()); bits != 0; bits &= bits - 1) {
+            featureMasks[Integer.numberOfTrailingZeros(bits)][r] |= mask;
+        }
+    }
+
+    /**
+     * Returns a copy of this seat map with the given seats marked as occupied or
+     * free. Unknown seat IDs are ignored.
+     *
+     * @param seatIds  IDs of the seats to update.
+     * @param occupied The new occupancy state of the seats.
+     * @param version  Version number of the new map.
+     * @return The updated seat map.
+     */
+    public SeatMap withOccupancy(Collection<Long> seatIds, boolean occupied, long version) {
+        long[] newFree = free.clone();
+        long[] newHeld = held.clone();
+        for (Long seatId : seatIds) {
+            Integer position = positionsById.get(seatId);
+            if (position == null) {
+                continue;
+            }
+            int row = position / MAX_ROW_WIDTH;
+            long mask = 1L << (position % MAX_ROW_WIDTH);
+            // The database state wins over any hold on the seat.
+            newHeld[row] &= ~mask;
+            if (occupied) {
+                newFree[row] &= ~mask;
+            } else {
+                newFree[row] |= mask;
+            }
+        }
+        return new SeatMap(layout, rowLabels, rowNumbers, rowBase, seats, present, featureMasks, positionsById,
+                newFree, newHeld, version);
+    }
+
+    /**
+     * Returns a copy of this seat map with the given seats held, or null if any
+     * of them is unknown or not free. Either all seats are held or none.
+     *
+     * @param seatIds IDs of the seats to hold.
+     * @param version Version number of the new map.
+     * @return The updated seat map, or null if the seats can not be held.
+     */
+    public SeatMap hold(Collection<Long> seatIds, long version) {
+        long[] newFree = free.clone();
+        long[] newHeld = held.clone();
+        for (Long seatId : seatIds) {
+            Integer position = positionsById.get(seatId);
+            if (position == null) {
+                return null;
+            }
+            int row = position / MAX_ROW_WIDTH;
+            long mask = 1L << (position % MAX_ROW_WIDTH);
+            if ((newFree[row] & mask) == 0) {
+                return null;
+            }
+            newFree[row] &= ~mask;
+            newHeld[row] |= mask;
+        }
+        return new SeatMap(layout, rowLabels, rowNumbers, rowBase, seats, present, featureMasks, positionsById,
+                newFree, newHeld, version);
+    }
+
+    /**
+     * Returns a copy of this seat map with the given held seats either occupied
+     * (the hold was confirmed) or free again (the hold was released). Seats that
+     * are not held are left unchanged.
+     *
+     * @param seatIds  IDs of the held seats.
+     * @param occupied True to occupy the seats, false to free them.
+     * @param version  Version number of the new map.
+     * @return The updated seat map.
+     */
+    public SeatMap endHold(Collection<Long> seatIds, boolean occupied, long version) {
+        long[] newFree = free.clone();
+        long[] newHeld = held.clone();
+        for (Long seatId : seatIds) {
+            Integer position = positionsById.get(seatId);
+            if (position == null) {
+                continue;
+            }
+            int row = position / MAX_ROW_WIDTH;
+            long mask = 1L << (position % MAX_ROW_WIDTH);
+            if ((newHeld[row] & mask) == 0) {
+                continue;
+            }
+            newHeld[row] &= ~mask;
+            if (!occupied) {
+                newFree[row] |= mask;
+            }
+        }
+        return new SeatMap(layout, rowLabels, rowNumbers, rowBase, seats, present, featureMasks, positionsById,
+                newFree, newHeld, version);
+    }
+
+    /**
+     * @param other Another seat map.
+     * @return True if both maps were derived from the same compiled seats, so
+     *         rows and seat positions match.
+     */
+    public boolean hasSameLayout(SeatMap other) {
+        return seats == other.seats;
+    }
+
+    /**
+     * Tells whether the given seats sit next to each other in one row, without
+     * an aisle between them.
+     *
+     * @param seatIds IDs of the seats.
+     * @return True if the seats form a contiguous group.
+     */
+    public boolean isContiguous(Collection<Long> seatIds) {
+        int row = -1;
+        long mask = 0;
+        for (Long seatId : seatIds) {
+            Integer position = positionsById.get(seatId);
+            if (position == null || (row >= 0 && position / MAX_ROW_WIDTH != row)) {
+                return false;
+            }
+            row = position / MAX_ROW_WIDTH;
+            mask |= 1L << (position % MAX_ROW_WIDTH);
+        }
+        long run = mask >>> Long.numberOfTrailingZeros(mask);
+        return row >= 0 && (run & (run + 1)) == 0 && (getAisleMask() & mask & (mask >>> 1)) == 0;
+    }
+
+    /**
+     * @return True if any seat of the flight is currently held.
+     */
+    public boolean hasHolds() {
+        for (long rowHeld : held) {
+            if (rowHeld != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Builds the seat list of the flight in row/seat order, with each seat's
+     * occupancy taken from this map and its label from the layout. The returned
+     * seats are detached copies, so callers can not change the cached state
+     * through them.
+     *
+     * @return The seats of the flight.
+     */
+    public List<Seat> getSeats() {
+        List<Seat> result = new ArrayList<>(positionsById.size());
+        for (int r = 0; r < seats.length; r++) {
+            long remaining = present[r];
+            while (remaining != 0) {
+                result.add(copyOf(r, Long.numberOfTrailingZeros(remaining)));
+                remaining &= remaining - 1;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Builds detached copies of the given seats with their occupancy taken from
+     * this map. Unknown seat IDs are skipped.
+     *
+     * @param seatIds IDs of the seats.
+     * @return The seats, in the order of the IDs.
+     */
+    public List<Seat> getSeats(Collection<Long> seatIds) {
+        List<Seat> result = new ArrayList<>(seatIds.size());
+        for (Long seatId : seatIds) {
+            Integer position = positionsById.get(seatId);
+            if (position != null) {
+                result.add(copyOf(position / MAX_ROW_WIDTH, position % MAX_ROW_WIDTH));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Builds a detached copy of the seat at the given position with its
+     * occupancy taken from this map, like {@link #getSeats()}.
+     *
+     * @param row Row index.
+     * @param bit Position of the seat in the row.
+     * @return The seat.
+     */
+    public Seat copySeat(int row, int bit) {
+        return copyOf(row, bit);
+    }
+
+    private Seat copyOf(int row, int bit) {
+        Seat source = seats[row][bit];
+        Seat copy = new Seat();
+        copy.setId(source.getId());
+        copy.setRow(source.getRow());
+        copy.setSeatNumber(source.getSeatNumber());
+        copy.setLabel(layout != null ? layout.seatLabel(rowNumbers[row], source.getSeatNumber())
+                : source.getRow() + (source.getSeatNumber() < 10 ? "0" : "") + source.getSeatNumber());
+        copy.setOccupied((free[row] & (1L << bit)) == 0);
+        copy.setFeatures(source.getFeatures());
+        copy.setFlight(source.getFlight());
+        return copy;
+    }
+
+    /**
+     * Converts a list of features into a bitmask indexed by
+     * {@link SeatFeature#ordinal()}. Duplicates are ignored.
+     *
+     * @param features The features to convert (may be null).
+     * @return The feature bitmask.
+     */
+    public static int featureBits(Collection<SeatFeature> features) {
+        return SeatFeature.toMask(features);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return The cabin layout the map was compiled with, or null.
+     */
+    public CabinLayout getLayout() {
+        return layout;
+    }
+
+    public int getRowCount() {
+        return rowLabels.length;
+    }
+
+    /**
+     * @return The number of the row, see {@link SeatFinderUtils#rowNumber}.
+     */
+    public int getRowNumber(int row) {
+        return rowNumbers[row];
+    }
+
+    /**
+     * @return The cabin class of the row, or null without a layout.
+     */
+    public CabinClass getCabinClass(int row) {
+        return layout == null ? null : layout.getCabinClass(rowNumbers[row]);
+    }
+
+    /**
+     * @return A mask with bit {@code i} set if there is an aisle right after
+     *         the seat at bit {@code i}; the same for every row.
+     */
+    public long getAisleMask() {
+        return layout == null ? 0 : layout.getAisleMask();
+    }
+
+    /**
+     * @return The position of the seat at the given bit across the cabin,
+     *         counting an aisle as one seat; the seat number without a layout.
+     */
+    public int getColumnPosition(int row, int bit) {
+        return layout == null ? rowBase[row] + bit : layout.getPosition(bit);
+    }
+
+    public String getRowLabel(int row) {
+        return rowLabels[row];
+    }
+
+    public int getRowBase(int row) {
+        return rowBase[row];
+    }
+
+    public long getPresentMask(int row) {
+        return present[row];
+    }
+
+    public long getFreeMask(int row) {
+        return free[row];
+    }
+
+    public long getHeldMask(int row) {
+        return held[row];
+    }
+
+    public long getFeatureMask(SeatFeature feature, int row) {
+        return featureMasks[feature.ordinal()][row];
+    }
+
+    /**
+     * Returns the seat at the given position as it was compiled into the map, or
+     * null if there is no seat there. Its occupancy may be out of date; use
+     * {@link #copySeat} for seats handed out to clients.
+     */
+    public Seat getSeat(int row, int bit) {
+        return seats[row][bit];
+    }
+
+    /**
+     * Counts the desired features present on the seats selected by {@code mask}
+     * in the given row.
+     *
+     * @param row         Row index.
+     * @param mask        Seat positions to count.
+     * @param featureBits Desired features as returned by {@link #featureBits}.
+     * @return Number of desired features found on the selected seats.
+     */
+    public int featureScore(int row, long mask, int featureBits) {
+        int score = 0;
+        while (featureBits != 0) {
+            int f = Integer.numberOfTrailingZeros(featureBits);
+            score += Long.bitCount(featureMasks[f][row] & mask);
+            featureBits &= featureBits - 1;
+        }
+        return score;
+    }
+
+    /**
+     * @return The number of seats on the flight.
+     */
+    public int getSeatCount() {
+        int count = 0;
+        for (long rowPresent : present) {
+            count += Long.bitCount(rowPresent);
+        }
+        return count;
+    }
+
+    /**
+     * @return The number of free seats on the flight.
+     */
+    public int getAvailableCount() {
+        int count = 0;
+        for (long rowFree : free) {
+            count += Long.bitCount(rowFree);
+        }
+        return count;
+    }
+}
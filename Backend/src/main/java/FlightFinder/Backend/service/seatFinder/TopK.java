@@ -0,0 +1,139 @@
+package FlightFinder.Backend.service.seatFinder;
+
+import java.util.Arrays;
+
+/**
+ * Bounded heap keeping the {@code k} best candidates offered to it, in arrays
+ * allocated once. Candidates are ranked by a primary rank and then by an order
+ * number, lower being better for both. A candidate itself is a {@code long}
+ * the finder can rebuild its seats from, e.g. the position of its first seat.
+ */
+final class TopK {
+
+    private final long[] rank;
+    private final long[] order;
+    private final long[] candidates;
+    private int size;
+    /** Number of candidates the search evaluated, kept or not. */
+    private long evaluated;
+
+    TopK(int k) {
+        rank = new long[k];
+        order = new long[k];
+        candidates = new long[k];
+    }
+
+    /**
+     * Offers a candidate, replacing the worst kept one if the heap is full and
+     * the candidate is better.
+     *
+     * @param candidateRank  Primary rank, lower is better.
+     * @param candidateOrder Tie breaker, lower is better.
+     * @param candidate      The candidate.
+     */
+    void offer(long candidateRank, long candidateOrder, long candidate) {
+        if (size < rank.length) {
+            // Sift up: the root is the worst candidate kept.
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) / 2;
+                if (!worse(candidateRank, candidateOrder, rank[parent], order[parent])) {
+                    break;
+                }
+                set(i, rank[parent], order[parent], candidates[parent]);
+                i = parent;
+            }
+            set(i, candidateRank, candidateOrder, candidate);
+            return;
+        }
+        if (!worse(rank[0], order[0], candidateRank, candidateOrder)) {
+            return;
+        }
+        // Sift down from the root, which the candidate replaces.
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && worse(rank[child + 1], order[child + 1], rank[child], order[child])) {
+                child++;
+            }
+            if (!worse(rank[child], order[child], candidateRank, candidateOrder)) {
+                break;
+            }
+            set(i, rank[child], order[child], candidates[child]);
+            i = child;
+        }
+        set(i, candidateRank, candidateOrder, candidate);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return The rank of the worst kept candidate once the heap is full, so
+     *         that a worse rank will not be kept, or {@link Long#MAX_VALUE}.
+     */
+    long worstRank() {
+        return size < rank.length ? Long.MAX_VALUE : rank[0];
+    }
+
+    /**
+     * Offers every candidate kept by another heap, e.g. one that searched a
+     * different part of the seat map, and adds the candidates it evaluated.
+     *
+     * @param other The other heap.
+     */
+    void offerAll(TopK other) {
+        for (int i = 0; i < other.size; i++) {
+            offer(other.rank[i], other.order[i], other.candidates[i]);
+        }
+        evaluated += other.evaluated;
+    }
+
+    /**
+     * Adds to the number of candidates the search evaluated, including those
+     * that were not offered or not kept.
+     *
+     * @param count Number of candidates.
+     */
+    void countEvaluated(long count) {
+        evaluated += count;
+    }
+
+    /**
+     * @return The number of candidates the search evaluated.
+     */
+    long evaluated() {
+        return evaluated;
+    }
+
+    /**
+     * @return The kept candidates, best first.
+     */
+    long[] candidatesBestFirst() {
+        Integer[] indexes = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            indexes[i] = i;
+        }
+        Arrays.sort(indexes, (a, b) -> rank[a] != rank[b] ? Long.compare(rank[a], rank[b])
+                : Long.compare(order[a], order[b]));
+        long[] best = new long[size];
+        for (int i = 0; i < size; i++) {
+            best[i] = candidates[indexes[i]];
+        }
+        return best;
+    }
+
+    private void set(int i, long candidateRank, long candidateOrder, long candidate) {
+        rank[i] = candidateRank;
+        order[i] = candidateOrder;
+        candidates[i] = candidate;
+    }
+
+    private static boolean worse(long rankA, long orderA, long rankB, long orderB) {
+        return rankA > rankB || (rankA == rankB && orderA > orderB);
+    }
+}
@@ -0,0 +1,23 @@
+-- Schema as created by Hibernate (ddl-auto=update) before migrations were introduced.
+create table flights (
+    id bigint generated by default as identity primary key,
+    departure_date date not null,
+    departure_time time(6) not null,
+    destination varchar(255) not null,
+    flight_number varchar(255) not null,
+    price float(53) not null,
+    start_location varchar(255) not null
+);
+
+create table seats (
+    id bigint generated by default as identity primary key,
+    is_occupied boolean not null,
+    row varchar(255) not null,
+    seat_number integer not null,
+    flight_id bigint not null references flights (id)
+);
+
+create table seat_features (
+    seat_id bigint not null references seats (id),
+    feature varchar(255) check (feature in ('WINDOW_SEAT', 'MORE_LEGROOM', 'CLOSE_TO_EXIT'))
+);
@@ -0,0 +1,2 @@
+-- Version column for optimistic locking when seats are booked.
+alter table seats add column version bigint not null default 0;
@@ -0,0 +1,8 @@
+-- Pooled sequence ids for flights and seats (allocation size 50, see Flight and Seat).
+-- Each nextval reserves the 50 ids up to and including the returned value, so the
+-- sequences start one block past the ids handed out by the identity columns.
+create sequence flights_seq start with 1 increment by 50;
+select setval('flights_seq', coalesce((select max(id) from flights), 0) + 1);
+
+create sequence seats_seq start with 1 increment by 50;
+select setval('seats_seq', coalesce((select max(id) from seats), 0) + 1);
@@ -0,0 +1,18 @@
+-- Seat features as a bitmask on seats (bit = SeatFeature ordinal) instead of one
+-- seat_features row per feature.
+alter table seats add column features integer not null default 0;
+
+update seats s
+set features = m.mask
+from (select seat_id,
+             bit_or(case feature
+                        when 'WINDOW_SEAT' then 1
+                        when 'MORE_LEGROOM' then 2
+                        when 'CLOSE_TO_EXIT' then 4
+                        else 0
+                    end) as mask
+      from seat_features
+      group by seat_id) m
+where m.seat_id = s.id;
+
+drop table seat_features;
@@ -0,0 +1,3 @@
+-- Aircraft type of a flight (AircraftType name), which defines its cabin layout.
+-- Existing flights keep null and are laid out from their seats.
+alter table flights add column aircraft_type varchar(16);
@@ -0,0 +1,5 @@
+-- Indexes for the flight list sort orders. Databases baselined at version 1
+-- never ran V1, so these cannot live there; "if not exists" covers databases
+-- that got them from ddl-auto or an earlier V1.
+create index if not exists idx_flights_departure on flights (departure_date, departure_time, id);
+create index if not exists idx_flights_price on flights (price, id);
@@ -0,0 +1,87 @@
+package FlightFinder.Backend.config;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ETagCompressionFilterTests {
+
+	private static final String LARGE_BODY = "[" + "{\"row\":\"12\",\"seatNumber\":3},".repeat(200) + "{}]";
+
+	private final HttpCachePolicy httpCachePolicy = new HttpCachePolicy(Duration.ofSeconds(1));
+	private final ETagCompressionFilter filter = new ETagCompressionFilter(new String[] { "application/json" },
+			2048);
+
+	@Test
+	void compressesTaggedResponsesAsOwnRepresentation() throws Exception {
+		String eTag = httpCachePolicy.eTag("seats", 7);
+		MockHttpServletResponse response = get("gzip, deflate", eTag, LARGE_BODY);
+
+		assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+		assertThat(response.getHeader(HttpHeaders.VARY)).isEqualTo(HttpHeaders.ACCEPT_ENCODING);
+		String compressedETag = response.getHeader(HttpHeaders.ETAG);
+		assertThat(compressedETag).isEqualTo(eTag.replaceFirst("\"$", "-gzip\""));
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+			assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(LARGE_BODY);
+		}
+
+		// Either ETag revalidates; the 304 repeats the one the client has.
+		assertThat(httpCachePolicy.isNotModified(compressedETag, eTag)).isTrue();
+		assertThat(httpCachePolicy.isNotModified("W/" + eTag, eTag)).isTrue();
+		ResponseEntity<Void> notModified = httpCachePolicy.notModified("\"other\", " + compressedETag, eTag);
+		assertThat(notModified.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+		assertThat(notModified.getHeaders().getETag()).isEqualTo(compressedETag);
+		assertThat(httpCachePolicy.isNotModified(httpCachePolicy.eTag("seats", 6), eTag)).isFalse();
+	}
+
+	@Test
+	void leavesOtherResponsesToTomcat() throws Exception {
+		String eTag = httpCachePolicy.eTag("seats", 7);
+
+		MockHttpServletResponse small = get("gzip", eTag, "[]");
+		MockHttpServletResponse untagged = get("gzip", null, LARGE_BODY);
+		MockHttpServletResponse notAccepted = get("gzip;q=0, br", eTag, LARGE_BODY);
+
+		assertThat(small.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+		assertThat(small.getHeader(HttpHeaders.ETAG)).isEqualTo(eTag);
+		assertThat(small.getContentAsString()).isEqualTo("[]");
+		assertThat(untagged.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+		assertThat(untagged.getContentAsString()).isEqualTo(LARGE_BODY);
+		assertThat(notAccepted.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+		assertThat(notAccepted.getContentAsString()).isEqualTo(LARGE_BODY);
+	}
+
+	private MockHttpServletResponse get(String acceptEncoding, String eTag, String body) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/flight/1/seats");
+		request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		HttpServlet servlet = new HttpServlet() {
+			@Override
+			protected void service(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+				resp.setContentType("application/json");
+				if (eTag != null) {
+					resp.setHeader(HttpHeaders.ETAG, eTag);
+				}
+				resp.getOutputStream().write(body.getBytes(StandardCharsets.UTF_8));
+				resp.getOutputStream().flush();
+			}
+		};
+		filter.doFilter(request, response, new MockFilterChain(servlet));
+		return response;
+	}
+}
@@ -0,0 +1,100 @@
+package FlightFinder.Backend.dto;
+
+import FlightFinder.Backend.model.Seat;
+import FlightFinder.Backend.model.SeatFeature;
+import FlightFinder.Backend.service.seatFinder.SeatMap;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompactSeatMapTests {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@Test
+	void describesEverySeat() throws IOException {
+		SeatMap seatMap = SeatMap.compile(cabin(30, 6), 7);
+		JsonNode root = objectMapper.readTree(write(seatMap, objectMapper.getFactory().createGenerator(
+				new ByteArrayOutputStream())));
+
+		Map<Long, Seat> seatsById = new HashMap<>();
+		seatMap.getSeats().forEach(seat -> seatsById.put(seat.getId(), seat));
+		List<String> legend = new ArrayList<>();
+		root.get("features").forEach(feature -> legend.add(feature.asText()));
+
+		int decoded = 0;
+		for (JsonNode row : root.get("rows")) {
+			long occupied = row.get("occupied").asLong();
+			int bit = 0;
+			for (JsonNode id : row.get("ids")) {
+				bit = Long.numberOfTrailingZeros(row.get("seats").asLong() >>> bit << bit);
+				Seat seat = seatsById.get(id.asLong());
+				assertThat(seat.getRow()).isEqualTo(row.get("row").asText());
+				assertThat(seat.getSeatNumber()).isEqualTo(row.get("first").asInt() + bit);
+				assertThat(seat.isOccupied()).isEqualTo((occupied & (1L << bit)) != 0);
+				Set<SeatFeature> features = EnumSet.noneOf(SeatFeature.class);
+				for (int f = 0; f < legend.size(); f++) {
+					if ((row.get("features").get(f).asLong() & (1L << bit)) != 0) {
+						features.add(SeatFeature.valueOf(legend.get(f)));
+					}
+				}
+				assertThat(features).isEqualTo(seat.getFeatures());
+				bit++;
+				decoded++;
+			}
+		}
+		assertThat(decoded).isEqualTo(180);
+		assertThat(root.get("version").asLong()).isEqualTo(7);
+	}
+
+	@Test
+	void isMuchSmallerThanTheSeatList() throws IOException {
+		SeatMap seatMap = SeatMap.compile(cabin(30, 6), 1);
+		int seatList = objectMapper.writeValueAsBytes(seatMap.getSeats()).length;
+		int json = write(seatMap, objectMapper.getFactory().createGenerator(new ByteArrayOutputStream())).length;
+		int cbor = write(seatMap, new CBORFactory().createGenerator(new ByteArrayOutputStream())).length;
+
+		assertThat(json * 5).isLessThan(seatList);
+		assertThat(cbor).isLessThan(json);
+	}
+
+	private static byte[] write(SeatMap seatMap, JsonGenerator generator) throws IOException {
+		ByteArrayOutputStream out = (ByteArrayOutputStream) generator.getOutputTarget();
+		try (generator) {
+			CompactSeatMap.write(1L, seatMap, generator);
+		}
+		return out.toByteArray();
+	}
+
+	private static List<Seat> cabin(int rows, int seatsPerRow) {
+		Random random = new Random(5);
+		List<Seat> seats = new ArrayList<>();
+		for (int r = 0; r < rows; r++) {
+			for (int n = 1; n <= seatsPerRow; n++) {
+				Seat seat = new Seat();
+				seat.setId((long) seats.size() + 1000);
+				seat.setRow(String.format("%02d", r));
+				seat.setSeatNumber(n);
+				seat.setOccupied(random.nextBoolean());
+				Set<SeatFeature> features = EnumSet.noneOf(SeatFeature.class);
+				if (n == 1 || n == seatsPerRow) {
+					features.add(SeatFeature.WINDOW_SEAT);
+				}
+				if (r < 3) {
+					features.add(SeatFeature.MORE_LEGROOM);
+				}
+				seat.setFeatures(features);
+				seats.add(seat);
+			}
+		}
+		return seats;
+	}
+}
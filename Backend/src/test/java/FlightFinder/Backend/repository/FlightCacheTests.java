@@ -0,0 +1,98 @@
+package FlightFinder.Backend.repository;
+
+import FlightFinder.Backend.cache.SeatMapCache;
+import FlightFinder.Backend.dto.FlightPage;
+import FlightFinder.Backend.search.FlightSearchIndex;
+import FlightFinder.Backend.service.FlightGeneratorService;
+import FlightFinder.Backend.service.FlightGeneratorServiceImpl;
+import FlightFinder.Backend.service.FlightService;
+import FlightFinder.Backend.service.FlightServiceImpl;
+import FlightFinder.Backend.service.FlightSortOrder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that flights and filter pages are served from the second-level and
+ * query caches, and that writes invalidate them. Runs without a test
+ * transaction: query results are only cached once the writes are committed.
+ * Uses its own database, as the committed rows are visible to other contexts.
+ */
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:flight-cache;MODE=PostgreSQL;NON_KEYWORDS=ROW;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ FlightServiceImpl.class, FlightGeneratorServiceImpl.class, SeatMapCache.class, FlightSearchIndex.class })
+class FlightCacheTests {
+
+	@Autowired
+	private FlightRepository flightRepository;
+
+	@Autowired
+	private FlightService flightService;
+
+	@Autowired
+	private FlightGeneratorService flightGeneratorService;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@AfterEach
+	void deleteFlights() {
+		jdbcTemplate.update("delete from seats");
+		jdbcTemplate.update("delete from flights");
+		entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAll();
+	}
+
+	@Test
+	void repeatedReadsDoNotQueryTheDatabase() {
+		flightService.addFlight();
+		Long flightId = page().flights().get(0).getId();
+		flightRepository.findById(flightId).orElseThrow();
+
+		Statistics statistics = statistics();
+		assertThat(page().flights()).hasSize(1);
+		assertThat(flightRepository.findById(flightId)).isPresent();
+		assertThat(statistics.getPrepareStatementCount()).isZero();
+		assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+		assertThat(statistics.getSecondLevelCacheHitCount()).isPositive();
+	}
+
+	@Test
+	void writesInvalidateCachedPages() {
+		flightService.addFlight();
+		assertThat(page().flights()).hasSize(1);
+
+		flightService.addFlight();
+		assertThat(page().flights()).hasSize(2);
+
+		// Generated flights are written with JDBC, bypassing Hibernate.
+		flightGeneratorService.generateFlights(3, 2, 2, 0, 1);
+		assertThat(page().flights()).hasSize(5);
+	}
+
+	private FlightPage page() {
+		return flightService.getFlightsPage(null, null, null, null, null, null, FlightSortOrder.DEPARTURE, null, 10);
+	}
+
+	private Statistics statistics() {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		return statistics;
+	}
+}
@@ -0,0 +1,97 @@
+package FlightFinder.Backend.repository;
+
+import FlightFinder.Backend.cache.RecommendationCache;
+import FlightFinder.Backend.cache.SeatMapCache;
+import FlightFinder.Backend.metrics.SeatRecommendationMetrics;
+import FlightFinder.Backend.model.Seat;
+import FlightFinder.Backend.model.SeatFeature;
+import FlightFinder.Backend.search.FlightSearchIndex;
+import FlightFinder.Backend.service.FlightService;
+import FlightFinder.Backend.service.FlightServiceImpl;
+import FlightFinder.Backend.service.SeatService;
+import FlightFinder.Backend.service.SeatServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityNotFoundException;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Guards the number of SQL statements issued by the seat endpoints, so that
+ * lazy loading of seats or seat features can not silently come back.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ FlightServiceImpl.class, SeatServiceImpl.class, SeatMapCache.class, FlightSearchIndex.class,
+		SeatRecommendationMetrics.class, SimpleMeterRegistry.class, RecommendationCache.class })
+class FlightRepositoryTests {
+
+	private static final long SEAT_LOAD_STATEMENT_BUDGET = 2;
+
+	@Autowired
+	private FlightRepository flightRepository;
+
+	@Autowired
+	private FlightService flightService;
+
+	@Autowired
+	private SeatService seatService;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Long flightId;
+
+	@BeforeEach
+	void addFlight() {
+		flightService.addFlight();
+		flightId = flightRepository.findAll().get(0).getId();
+		entityManager.flush();
+		entityManager.clear();
+	}
+
+	@Test
+	void seatEndpointsStayWithinStatementBudget() {
+		Statistics statistics = statistics();
+
+		List<Seat> seats = flightService.getSeatsByFlight(flightId);
+		assertThat(seats).hasSize(180);
+		assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(SEAT_LOAD_STATEMENT_BUDGET);
+
+		// A warm flight is served without touching the database.
+		statistics.clear();
+		flightService.getSeatsByFlight(flightId);
+		seatService.getSeatRecommendations(flightId, 2, List.of(SeatFeature.WINDOW_SEAT));
+		assertThat(statistics.getPrepareStatementCount()).isZero();
+	}
+
+	@Test
+	void unknownFlightIsNotFound() {
+		assertThat(flightRepository.findSeatsByFlightIds(List.of(-1L))).isEmpty();
+		assertThat(seatService.getSeatRecommendations(-1L, 2, null)).isEmpty();
+		assertThatThrownBy(() -> flightService.getSeatsByFlight(-1L)).isInstanceOf(EntityNotFoundException.class);
+	}
+
+	private Statistics statistics() {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		return statistics;
+	}
+}
@@ -0,0 +1,125 @@
+package FlightFinder.Backend.search;
+
+import FlightFinder.Backend.model.AircraftType;
+import FlightFinder.Backend.model.Flight;
+import FlightFinder.Backend.repository.FlightRepository;
+import FlightFinder.Backend.repository.FlightSpecifications;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class FlightSearchIndexTests {
+
+	private static final List<String> CITIES = List.of("Liberty City", "Vice City", "Los Santos", "San Fierro",
+			"Las Venturas");
+
+	private static final List<String> QUERIES = List.of("", "a", "ci", "CITY", "san", "Los S", "ierr", "tura",
+			"x", "liberty city", "city vice");
+
+	@Autowired
+	private FlightRepository flightRepository;
+
+	private FlightSearchIndex flightSearchIndex;
+
+	@BeforeEach
+	void createIndex() {
+		// A new index per test, loaded from the flights of the test on first use.
+		flightSearchIndex = new FlightSearchIndex(flightRepository, Duration.ofMinutes(10));
+	}
+
+	@Test
+	void matchesSpecificationResults() {
+		Random random = new Random(7);
+		for (int i = 0; i < 100; i++) {
+			flightRepository.save(randomFlight(random));
+		}
+		flightSearchIndex.getVersion();
+		// Added one by one: enough to rebuild the index once, with the rest still waiting to be indexed.
+		for (int i = 0; i < 300; i++) {
+			flightSearchIndex.add(flightRepository.save(randomFlight(random)));
+		}
+
+		for (int i = 0; i < 500; i++) {
+			String startLocation = random.nextInt(3) == 0 ? null : QUERIES.get(random.nextInt(QUERIES.size()));
+			String destination = random.nextInt(3) == 0 ? null : QUERIES.get(random.nextInt(QUERIES.size()));
+			LocalDate departureDate = random.nextInt(4) == 0 ? LocalDate.of(2025, 1 + random.nextInt(2), 1) : null;
+			LocalTime departureTime = random.nextInt(10) == 0 ? LocalTime.of(random.nextInt(24), 0) : null;
+			Double minPrice = random.nextBoolean() ? 100 + random.nextInt(400) * 1.0 : null;
+			Double maxPrice = random.nextBoolean() ? 100 + random.nextInt(400) * 1.0 : null;
+
+			// The index answers /flight/filter, so its flights must carry the same fields.
+			List<List<Object>> expected = flightRepository.findAll(FlightSpecifications.withFilters(startLocation,
+					destination, departureDate, departureTime, minPrice, maxPrice))
+					.stream().sorted(Comparator.comparing(Flight::getId)).map(FlightSearchIndexTests::fields)
+					.toList();
+			List<List<Object>> actual = flightSearchIndex.search(startLocation, destination, departureDate,
+					departureTime, minPrice, maxPrice)
+					.stream().map(FlightSearchIndexTests::fields).toList();
+			assertThat(actual).isEqualTo(expected);
+		}
+	}
+
+	@Test
+	void addedFlightsAreSearchable() {
+		Random random = new Random(11);
+		flightRepository.save(randomFlight(random));
+		long version = flightSearchIndex.getVersion();
+		assertThat(flightSearchIndex.search(null, null, null, null, null, null)).hasSize(1);
+
+		Flight added = flightRepository.save(randomFlight(random));
+		flightSearchIndex.add(added);
+
+		assertThat(flightSearchIndex.getVersion()).isGreaterThan(version);
+		assertThat(flightSearchIndex.search(added.getStartLocation(), added.getDestination(), null, null, null,
+				null)).extracting(Flight::getId).contains(added.getId());
+	}
+
+	@Test
+	void reconcilesWithFlightsSavedElsewhere() {
+		flightSearchIndex = new FlightSearchIndex(flightRepository, Duration.ZERO);
+		Random random = new Random(13);
+		flightRepository.save(randomFlight(random));
+		long version = flightSearchIndex.getVersion();
+		assertThat(flightSearchIndex.getVersion()).isEqualTo(version);
+
+		// Saved without telling the index, like a flight written by another instance.
+		Flight saved = flightRepository.save(randomFlight(random));
+
+		assertThat(flightSearchIndex.getVersion()).isGreaterThan(version);
+		assertThat(flightSearchIndex.search(null, null, null, null, null, null)).extracting(Flight::getId)
+				.contains(saved.getId());
+	}
+
+	private static List<Object> fields(Flight flight) {
+		return Arrays.asList(flight.getId(), flight.getFlightNumber(), flight.getStartLocation(),
+				flight.getDestination(), flight.getDepartureDate(), flight.getDepartureTime(), flight.getPrice(),
+				flight.getAircraftType());
+	}
+
+	private static Flight randomFlight(Random random) {
+		List<String> cities = new ArrayList<>(CITIES);
+		Collections.shuffle(cities, random);
+		Flight flight = new Flight();
+		flight.setFlightNumber("AA" + random.nextInt(1_000_000));
+		flight.setStartLocation(cities.get(0));
+		flight.setDestination(cities.get(1));
+		flight.setDepartureDate(LocalDate.of(2025, 1 + random.nextInt(2), 1 + random.nextInt(3)));
+		flight.setDepartureTime(LocalTime.of(random.nextInt(24), 0));
+		flight.setPrice(100 + random.nextInt(400) * 1.0);
+		flight.setAircraftType(AircraftType.values()[random.nextInt(AircraftType.values().length)]);
+		return flight;
+	}
+}
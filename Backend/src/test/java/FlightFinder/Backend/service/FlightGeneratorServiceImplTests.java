@@ -0,0 +1,90 @@
+package FlightFinder.Backend.service;
+
+import FlightFinder.Backend.cache.SeatMapCache;
+import FlightFinder.Backend.dto.GenerationReport;
+import FlightFinder.Backend.model.Flight;
+import FlightFinder.Backend.repository.FlightRepository;
+import FlightFinder.Backend.search.FlightSearchIndex;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ FlightGeneratorServiceImpl.class, FlightServiceImpl.class, SeatMapCache.class, FlightSearchIndex.class })
+class FlightGeneratorServiceImplTests {
+
+	@Autowired
+	private FlightGeneratorService flightGeneratorService;
+
+	@Autowired
+	private FlightService flightService;
+
+	@Autowired
+	private FlightRepository flightRepository;
+
+	@Autowired
+	private SeatMapCache seatMapCache;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void generatesReproducibleFlights() {
+		GenerationReport first = flightGeneratorService.generateFlights(30, 5, 4, 0.3, 7);
+		GenerationReport second = flightGeneratorService.generateFlights(30, 5, 4, 0.3, 7);
+
+		assertThat(first.flights()).isEqualTo(30);
+		assertThat(first.seats()).isEqualTo(30 * 5 * 4);
+		assertThat(first.method()).isEqualTo("JDBC_BATCH");
+		assertThat(first.rowsPerSecond()).isPositive();
+		assertThat(second.seatFeatures()).isEqualTo(first.seatFeatures());
+		assertThat(jdbcTemplate.queryForList("select features from seats", Integer.class).stream()
+				.mapToLong(Integer::bitCount).sum())
+				.isEqualTo(first.seatFeatures() + second.seatFeatures());
+
+		List<Flight> flights = flightRepository.findAll(Sort.by("id"));
+		assertThat(flights).hasSize(60);
+		for (int i = 0; i < 30; i++) {
+			Flight a = flights.get(i);
+			Flight b = flights.get(30 + i);
+			assertThat(List.of(b.getFlightNumber(), b.getStartLocation(), b.getDestination(), b.getDepartureDate(),
+					b.getDepartureTime(), b.getPrice())).isEqualTo(List.of(a.getFlightNumber(), a.getStartLocation(),
+					a.getDestination(), a.getDepartureDate(), a.getDepartureTime(), a.getPrice()));
+			assertThat(seatMapCache.get(b.getId()).orElseThrow().getSeats())
+					.usingRecursiveFieldByFieldElementComparatorOnFields("row", "seatNumber", "isOccupied", "features")
+					.isEqualTo(seatMapCache.get(a.getId()).orElseThrow().getSeats());
+		}
+	}
+
+	@Test
+	void entityIdsDoNotCollideWithGeneratedIds() {
+		flightService.addFlight();
+		flightGeneratorService.generateFlights(3, 12, 6, 0.5, 1);
+		flightService.addFlight();
+		flightRepository.flush();
+
+		assertThat(flightRepository.count()).isEqualTo(5);
+		assertThat(jdbcTemplate.queryForObject("select count(distinct id) from seats", Long.class))
+				.isEqualTo(3 * 72 + 2 * 180);
+	}
+
+	@Test
+	void rejectsInvalidCabins() {
+		assertThatThrownBy(() -> flightGeneratorService.generateFlights(1, 100, 6, 0.5, 0))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> flightGeneratorService.generateFlights(1, 12, 65, 0.5, 0))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+}
@@ -0,0 +1,137 @@
+package FlightFinder.Backend.service;
+
+import FlightFinder.Backend.cache.RecommendationCache;
+import FlightFinder.Backend.cache.SeatMapCache;
+import FlightFinder.Backend.dto.FlightSeatOption;
+import FlightFinder.Backend.dto.FlightSeatSearchResult;
+import FlightFinder.Backend.exception.SeatRecommendationLimitException;
+import FlightFinder.Backend.metrics.SeatRecommendationMetrics;
+import FlightFinder.Backend.model.Flight;
+import FlightFinder.Backend.model.SeatFeature;
+import FlightFinder.Backend.search.FlightSearchIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+// The flight search index would outlive the rolled back flights of each test.
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@Import({ FlightSeatSearchServiceImpl.class, FlightGeneratorServiceImpl.class, FlightServiceImpl.class,
+		SeatServiceImpl.class, SeatMapCache.class, FlightSearchIndex.class, RecommendationCache.class,
+		SeatRecommendationMetrics.class, SimpleMeterRegistry.class })
+class FlightSeatSearchServiceImplTests {
+
+	@Autowired
+	private FlightSeatSearchService flightSeatSearchService;
+
+	@Autowired
+	private FlightGeneratorService flightGeneratorService;
+
+	@Autowired
+	private FlightService flightService;
+
+	@Autowired
+	private SeatService seatService;
+
+	@Autowired
+	private SeatMapCache seatMapCache;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Test
+	void ranksFlightsWithSuitableSeatsAfterOneSeatQuery() {
+		// Crowded cabins, so some flights have no group of four together.
+		flightGeneratorService.generateFlights(60, 8, 6, 0.75, 11);
+		// Load the flight search index, so only the seat query is counted.
+		flightService.getCatalogVersion();
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		List<SeatFeature> features = List.of(SeatFeature.MORE_LEGROOM);
+		FlightSeatSearchResult result = flightSeatSearchService.searchFlightsWithSeats(null, null, null, null, null,
+				null, 4, features, 100);
+
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+		assertThat(result.candidates()).isEqualTo(60);
+		assertThat(result.complete()).isTrue();
+
+		List<FlightSeatOption> options = result.flights();
+		assertThat(options).anyMatch(FlightSeatOption::contiguous).anyMatch(option -> !option.contiguous());
+		for (int i = 0; i < options.size(); i++) {
+			FlightSeatOption option = options.get(i);
+			assertThat(option.seats())
+					.isEqualTo(seatService.getSeatRecommendations(option.flight().getId(), 4, features));
+			if (i > 0) {
+				FlightSeatOption previous = options.get(i - 1);
+				assertThat(previous.contiguous() && !option.contiguous()
+						|| previous.contiguous() == option.contiguous()
+								&& previous.featureScore() >= option.featureScore())
+						.isTrue();
+			}
+		}
+		// Every flight left out really has no seats for the party.
+		List<Long> found = options.stream().map(option -> option.flight().getId()).toList();
+		for (Flight flight : flightService.getFlightsWithFilters(null, null, null, null, null, null)) {
+			if (!found.contains(flight.getId())) {
+				assertThat(seatService.getSeatRecommendations(flight.getId(), 4, features)).isEmpty();
+			}
+		}
+	}
+
+	@Test
+	void limitsResults() {
+		flightGeneratorService.generateFlights(10, 4, 4, 0.0, 3);
+
+		FlightSeatSearchResult result = flightSeatSearchService.searchFlightsWithSeats(null, null, null, null, null,
+				null, 2, null, 3);
+
+		assertThat(result.flights()).hasSize(3).allMatch(FlightSeatOption::contiguous);
+		assertThat(result.candidates()).isEqualTo(10);
+	}
+
+	@Test
+	void skipsFlightsAtTheirRecommendationLimit() {
+		flightGeneratorService.generateFlights(10, 4, 4, 0.0, 3);
+		Long busy = flightService.getFlightsWithFilters(null, null, null, null, null, null).get(0).getId();
+		SeatService limited = mock(SeatService.class);
+		when(limited.getSeatRecommendations(any(), anyInt(), any())).thenAnswer(invocation -> {
+			if (busy.equals(invocation.getArgument(0))) {
+				throw new SeatRecommendationLimitException("busy");
+			}
+			return seatService.getSeatRecommendations(invocation.getArgument(0), invocation.getArgument(1),
+					invocation.getArgument(2));
+		});
+		FlightSeatSearchServiceImpl search = new FlightSeatSearchServiceImpl(flightService, limited, seatMapCache,
+				Duration.ofSeconds(5), 500);
+
+		FlightSeatSearchResult result;
+		try {
+			result = search.searchFlightsWithSeats(null, null, null, null, null, null, 2, null, 100);
+		} finally {
+			search.shutdown();
+		}
+
+		assertThat(result.complete()).isFalse();
+		assertThat(result.flights()).hasSize(9).noneMatch(option -> option.flight().getId().equals(busy));
+	}
+}
@@ -0,0 +1,82 @@
+package FlightFinder.Backend.service;
+
+import FlightFinder.Backend.cache.SeatMapCache;
+import FlightFinder.Backend.dto.FlightPage;
+import FlightFinder.Backend.model.Flight;
+import FlightFinder.Backend.repository.FlightRepository;
+import FlightFinder.Backend.search.FlightSearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ FlightServiceImpl.class, SeatMapCache.class, FlightSearchIndex.class })
+class FlightServiceImplTests {
+
+	@Autowired
+	private FlightRepository flightRepository;
+
+	@Autowired
+	private FlightService flightService;
+
+	@BeforeEach
+	void addFlights() {
+		Random random = new Random(3);
+		for (int i = 0; i < 120; i++) {
+			Flight flight = new Flight();
+			flight.setFlightNumber("AA" + i);
+			flight.setStartLocation(random.nextBoolean() ? "Vice City" : "Los Santos");
+			flight.setDestination("Liberty City");
+			// Few distinct values, so the keyset has to fall through to the later columns.
+			flight.setDepartureDate(LocalDate.of(2025, 1, 1 + random.nextInt(3)));
+			flight.setDepartureTime(LocalTime.of(random.nextInt(3), 0));
+			flight.setPrice(100.0 + random.nextInt(5));
+			flightRepository.save(flight);
+		}
+	}
+
+	@Test
+	void pagesCoverAllFlightsInOrder() {
+		for (FlightSortOrder sortOrder : FlightSortOrder.values()) {
+			List<Long> expected = flightRepository.findAll(sortOrder.getSort()).stream()
+					.filter(flight -> flight.getStartLocation().equals("Vice City"))
+					.map(Flight::getId).toList();
+
+			List<Long> paged = new ArrayList<>();
+			String cursor = null;
+			do {
+				FlightPage page = flightService.getFlightsPage("vice", null, null, null, null, null, sortOrder,
+						cursor, 7);
+				assertThat(page.flights()).hasSizeLessThanOrEqualTo(7);
+				page.flights().forEach(flight -> paged.add(flight.getId()));
+				cursor = page.nextCursor();
+			} while (cursor != null);
+
+			assertThat(paged).isEqualTo(expected);
+		}
+	}
+
+	@Test
+	void streamReturnsAllFlightsInOrder() {
+		List<Long> expected = flightRepository.findAll(FlightSortOrder.PRICE.getSort()).stream()
+				.map(Flight::getId).toList();
+
+		List<Long> streamed = new ArrayList<>();
+		flightService.streamFlightsWithFilters(null, null, null, null, null, null, FlightSortOrder.PRICE,
+				flight -> streamed.add(flight.getId()));
+
+		assertThat(streamed).isEqualTo(expected);
+	}
+}
@@ -0,0 +1,237 @@
+package FlightFinder.Backend.service;
+
+import FlightFinder.Backend.cache.RecommendationCache;
+import FlightFinder.Backend.cache.SeatMapCache;
+import FlightFinder.Backend.dto.SeatHold;
+import FlightFinder.Backend.exception.SeatHoldConflictException;
+import FlightFinder.Backend.exception.SeatHoldNotFoundException;
+import FlightFinder.Backend.metrics.SeatRecommendationMetrics;
+import FlightFinder.Backend.model.Seat;
+import FlightFinder.Backend.model.SeatFeature;
+import FlightFinder.Backend.repository.FlightRepository;
+import FlightFinder.Backend.repository.SeatRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Races many customers for the seats of one flight, with the database replaced
+ * by an in-memory seat table.
+ */
+class SeatHoldServiceImplTests {
+
+	private static final long FLIGHT_ID = 1L;
+	private static final int ROWS = 50;
+	private static final int SEATS_PER_ROW = 10;
+
+	private final Map<Long, Seat> database = new ConcurrentHashMap<>();
+	private SeatHoldServiceImpl seatHoldService;
+	private SeatMapCache seatMapCache;
+
+	@BeforeEach
+	void setUp() {
+		long id = 1;
+		for (int row = 0; row < ROWS; row++) {
+			for (int number = 1; number <= SEATS_PER_ROW; number++) {
+				Seat seat = new Seat();
+				seat.setId(id++);
+				seat.setRow(String.valueOf((char) ('A' + row)));
+				seat.setSeatNumber(number);
+				seat.setFeatures(number == 1 || number == SEATS_PER_ROW
+						? Set.of(SeatFeature.WINDOW_SEAT) : Set.of());
+				database.put(seat.getId(), seat);
+			}
+		}
+		start(Duration.ofMinutes(5));
+	}
+
+	@AfterEach
+	void tearDown() {
+		seatHoldService.shutdown();
+	}
+
+	@Test
+	void concurrentHoldsNeverShareSeats() throws Exception {
+		Set<Long> confirmed = ConcurrentHashMap.newKeySet();
+		Map<Long, String> heldBy = new ConcurrentHashMap<>();
+		AtomicInteger overlaps = new AtomicInteger();
+		AtomicInteger conflicts = new AtomicInteger();
+
+		ExecutorService executor = Executors.newFixedThreadPool(16);
+		List<Future<?>> customers = new ArrayList<>();
+		for (int c = 0; c < 400; c++) {
+			int customer = c;
+			customers.add(executor.submit(() -> {
+				Random random = new Random(customer);
+				SeatHold hold;
+				try {
+					hold = seatHoldService.holdRecommendedSeats(FLIGHT_ID, 1 + random.nextInt(4),
+							random.nextBoolean() ? List.of(SeatFeature.WINDOW_SEAT) : List.of());
+				} catch (SeatHoldConflictException e) {
+					conflicts.incrementAndGet();
+					return;
+				}
+				for (Seat seat : hold.seats()) {
+					if (heldBy.putIfAbsent(seat.getId(), hold.holdId()) != null) {
+						overlaps.incrementAndGet();
+					}
+				}
+				if (random.nextInt(3) == 0) {
+					hold.seats().forEach(seat -> heldBy.remove(seat.getId(), hold.holdId()));
+					seatHoldService.releaseHold(hold.holdId());
+				} else {
+					for (Seat seat : seatHoldService.confirmHold(hold.holdId())) {
+						assertThat(seat.isOccupied()).isTrue();
+						if (!confirmed.add(seat.getId())) {
+							overlaps.incrementAndGet();
+						}
+					}
+				}
+			}));
+		}
+		for (Future<?> customer : customers) {
+			customer.get(30, TimeUnit.SECONDS);
+		}
+		executor.shutdown();
+
+		assertThat(overlaps.get()).isZero();
+		long booked = database.values().stream().filter(Seat::isOccupied).count();
+		assertThat(booked).isEqualTo(confirmed.size());
+		assertThat(seatMapCache.get(FLIGHT_ID).orElseThrow().getAvailableCount())
+				.isEqualTo(ROWS * SEATS_PER_ROW - confirmed.size());
+		assertThat(confirmed.size() + conflicts.get()).isPositive();
+	}
+
+	@Test
+	void explicitHoldsAreAllOrNothing() {
+		SeatHold first = seatHoldService.holdSeats(FLIGHT_ID, List.of(1L, 2L));
+		assertThatThrownBy(() -> seatHoldService.holdSeats(FLIGHT_ID, List.of(2L, 3L)))
+				.isInstanceOf(SeatHoldConflictException.class);
+
+		// Seat 3 was not held by the failed attempt.
+		SeatHold second = seatHoldService.holdSeats(FLIGHT_ID, List.of(3L));
+		seatHoldService.releaseHold(first.holdId());
+		seatHoldService.releaseHold(second.holdId());
+		assertThatThrownBy(() -> seatHoldService.confirmHold(first.holdId()))
+				.isInstanceOf(SeatHoldNotFoundException.class);
+		assertThat(seatMapCache.get(FLIGHT_ID).orElseThrow().getAvailableCount()).isEqualTo(ROWS * SEATS_PER_ROW);
+	}
+
+	@Test
+	void seatsBookedElsewhereAreNotConfirmed() {
+		SeatHold hold = seatHoldService.holdSeats(FLIGHT_ID, List.of(5L));
+		database.get(5L).setOccupied(true);
+
+		assertThatThrownBy(() -> seatHoldService.confirmHold(hold.holdId()))
+				.isInstanceOf(SeatHoldConflictException.class);
+		assertThat(seatMapCache.get(FLIGHT_ID).orElseThrow().hasHolds()).isFalse();
+		assertThatThrownBy(() -> seatHoldService.holdSeats(FLIGHT_ID, List.of(5L)))
+				.isInstanceOf(SeatHoldConflictException.class);
+	}
+
+	@Test
+	void unconfirmedHoldsExpire() throws Exception {
+		seatHoldService.shutdown();
+		start(Duration.ofMillis(200));
+
+		SeatHold hold = seatHoldService.holdSeats(FLIGHT_ID, List.of(1L, 2L, 3L));
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (seatMapCache.get(FLIGHT_ID).orElseThrow().hasHolds() && System.nanoTime() < deadline) {
+			Thread.sleep(20);
+		}
+
+		assertThat(seatMapCache.get(FLIGHT_ID).orElseThrow().getAvailableCount()).isEqualTo(ROWS * SEATS_PER_ROW);
+		assertThatThrownBy(() -> seatHoldService.confirmHold(hold.holdId()))
+				.isInstanceOf(SeatHoldNotFoundException.class);
+	}
+
+	@Test
+	void holdsSurviveEvictionPressure() throws Exception {
+		seatHoldService.shutdown();
+		start(Duration.ofMinutes(5), 1);
+
+		// Keep loading other flights so the cache is over its size limit on every miss.
+		AtomicBoolean done = new AtomicBoolean();
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		Future<?> churn = executor.submit(() -> {
+			for (long flightId = 2; !done.get(); flightId = flightId % 8 + 2) {
+				seatMapCache.get(flightId);
+			}
+		});
+		try {
+			for (long seatId = 1; seatId <= 100; seatId++) {
+				List<Long> seat = List.of(seatId);
+				seatHoldService.holdSeats(FLIGHT_ID, seat);
+				assertThatThrownBy(() -> seatHoldService.holdSeats(FLIGHT_ID, seat))
+						.isInstanceOf(SeatHoldConflictException.class);
+			}
+		} finally {
+			done.set(true);
+			churn.get(30, TimeUnit.SECONDS);
+			executor.shutdown();
+		}
+
+		assertThat(seatMapCache.get(FLIGHT_ID).orElseThrow().getAvailableCount()).isEqualTo(ROWS * SEATS_PER_ROW - 100);
+	}
+
+	private void start(Duration ttl) {
+		start(ttl, 10);
+	}
+
+	@SuppressWarnings("unchecked")
+	private void start(Duration ttl, int cacheSize) {
+		// Every flight has the same seats, but only FLIGHT_ID is booked against the seat table.
+		FlightRepository flightRepository = mock(FlightRepository.class, withSettings().stubOnly());
+		when(flightRepository.findSeatsByFlightIds(any()))
+				.thenAnswer(invocation -> ((Collection<Long>) invocation.getArgument(0)).stream()
+						.flatMap(flightId -> copies(database.values()).stream().map(seat -> new Object[] { flightId, null, seat }))
+						.toList());
+		SeatRepository seatRepository = mock(SeatRepository.class);
+		when(seatRepository.findAllById(any(Iterable.class))).thenAnswer(invocation -> {
+			List<Seat> found = new ArrayList<>();
+			for (Long id : (Iterable<Long>) invocation.getArgument(0)) {
+				Seat seat = database.get(id);
+				if (seat != null) {
+					found.add(seat);
+				}
+			}
+			return found;
+		});
+		PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+		seatMapCache = new SeatMapCache(flightRepository, transactionManager, cacheSize);
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		SeatService seatService = new SeatServiceImpl(seatMapCache,
+				new RecommendationCache(registry, 100, Duration.ofMinutes(1)), new SeatRecommendationMetrics(registry), 1, 16);
+		seatHoldService = new SeatHoldServiceImpl(seatService, seatMapCache, seatRepository, transactionManager, ttl);
+	}
+
+	private static List<Seat> copies(Collection<Seat> seats) {
+		List<Seat> result = new ArrayList<>();
+		for (Seat seat : seats) {
+			Seat copy = new Seat();
+			copy.setId(seat.getId());
+			copy.setRow(seat.getRow());
+			copy.setSeatNumber(seat.getSeatNumber());
+			copy.setOccupied(seat.isOccupied());
+			copy.setFeatures(seat.getFeatures());
+			result.add(copy);
+		}
+		return result;
+	}
+}
@@ -0,0 +1,140 @@
+package FlightFinder.Backend.service;
+
+import FlightFinder.Backend.cache.SeatMapCache;
+import FlightFinder.Backend.exception.SeatFeedLimitException;
+import FlightFinder.Backend.model.Seat;
+import FlightFinder.Backend.repository.FlightRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SeatMapFeedServiceImplTests {
+
+	private SeatMapCache seatMapCache;
+	private SeatMapFeedServiceImpl feedService;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		// One row of four free seats.
+		List<Seat> seats = new ArrayList<>();
+		for (int number = 1; number <= 4; number++) {
+			Seat seat = new Seat();
+			seat.setId((long) number);
+			seat.setRow("A");
+			seat.setSeatNumber(number);
+			seat.setFeatures(Set.of());
+			seats.add(seat);
+		}
+		FlightRepository flightRepository = mock(FlightRepository.class);
+		when(flightRepository.findSeatsByFlightIds(any()))
+				.thenAnswer(invocation -> ((Collection<Long>) invocation.getArgument(0)).stream()
+						.flatMap(flightId -> seats.stream().map(seat -> new Object[] { flightId, null, seat }))
+						.toList());
+
+		seatMapCache = new SeatMapCache(flightRepository, mock(PlatformTransactionManager.class), 10);
+		feedService = new SeatMapFeedServiceImpl(seatMapCache, new ObjectMapper(), 3, Duration.ofMinutes(1),
+				Duration.ofMinutes(1));
+	}
+
+	@AfterEach
+	void tearDown() {
+		feedService.shutdown();
+	}
+
+	@Test
+	void sendsSnapshotThenDeltas() throws Exception {
+		RecordingEmitter emitter = new RecordingEmitter();
+		feedService.subscribe(1L, null, emitter);
+		String snapshot = emitter.next();
+		assertThat(snapshot).contains("event:snapshot").contains("\"ids\":[1,2,3,4]");
+
+		seatMapCache.updateOccupancy(1L, List.of(2L, 3L), true);
+		assertThat(emitter.next()).contains("event:delta").contains("\"occupied\":[2,3],\"free\":[]");
+
+		seatMapCache.updateOccupancy(1L, List.of(3L), false);
+		String delta = emitter.next();
+		assertThat(delta).contains("\"occupied\":[],\"free\":[3]");
+		assertThat(version(delta)).isGreaterThan(version(snapshot));
+	}
+
+	@Test
+	void resumesFromLastEventId() throws Exception {
+		RecordingEmitter first = new RecordingEmitter();
+		feedService.subscribe(1L, null, first);
+		String lastEventId = eventId(first.next());
+
+		// Changes while the client is away are sent as one delta on reconnect.
+		seatMapCache.updateOccupancy(1L, List.of(1L), true);
+		seatMapCache.updateOccupancy(1L, List.of(4L), true);
+		RecordingEmitter second = new RecordingEmitter();
+		feedService.subscribe(1L, lastEventId, second);
+		assertThat(second.next()).contains("event:delta").contains("\"occupied\":[1,4]");
+
+		// The same version from an earlier start of the backend gets a snapshot instead.
+		RecordingEmitter third = new RecordingEmitter();
+		feedService.subscribe(1L, "earlier-" + version(lastEventId), third);
+		assertThat(third.next()).contains("event:snapshot");
+	}
+
+	@Test
+	void limitsSubscribersPerFlight() {
+		for (int i = 0; i < 3; i++) {
+			feedService.subscribe(1L, null, new RecordingEmitter());
+		}
+		assertThatThrownBy(() -> feedService.subscribe(1L, null, new RecordingEmitter()))
+				.isInstanceOf(SeatFeedLimitException.class);
+	}
+
+	private static String eventId(String event) {
+		return event.lines().filter(line -> line.startsWith("id:")).findFirst().orElseThrow().substring(3);
+	}
+
+	/**
+	 * @return The seat map version at the end of an event ID, or of the ID of an
+	 *         event.
+	 */
+	private static long version(String eventOrId) {
+		String id = eventOrId.contains("id:") ? eventId(eventOrId) : eventOrId;
+		return Long.parseLong(id.substring(id.lastIndexOf('-') + 1));
+	}
+
+	/**
+	 * Emitter that records the events sent to it instead of writing them to a
+	 * response.
+	 */
+	private static final class RecordingEmitter extends SseEmitter {
+		private final BlockingQueue<String> events = new LinkedBlockingQueue<>();
+
+		@Override
+		public void send(SseEventBuilder builder) {
+			events.add(builder.build().stream().map(data -> data.getData().toString())
+					.collect(Collectors.joining()));
+		}
+
+		String next() throws InterruptedException {
+			String event = events.poll(5, TimeUnit.SECONDS);
+			assertThat(event).as("event").isNotNull();
+			return event;
+		}
+	}
+}
@@ -0,0 +1,204 @@
+package FlightFinder.Backend.service;
+
+import FlightFinder.Backend.cache.RecommendationCache;
+import FlightFinder.Backend.cache.SeatMapCache;
+import FlightFinder.Backend.dto.Party;
+import FlightFinder.Backend.exception.SeatRecommendationLimitException;
+import FlightFinder.Backend.metrics.SeatRecommendationMetrics;
+import FlightFinder.Backend.model.Seat;
+import FlightFinder.Backend.model.SeatFeature;
+import FlightFinder.Backend.repository.FlightRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SeatServiceImplTests {
+
+	private MeterRegistry registry;
+	private FlightRepository flightRepository;
+	private SeatMapCache seatMapCache;
+	private SeatService seatService;
+	/** Seat loads wait for it to open, if set. */
+	private volatile CountDownLatch loadGate;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		// Two rows of four seats; only seats 1 and 4 of each row are free.
+		List<Seat> seats = new ArrayList<>();
+		long id = 1;
+		for (String row : List.of("A", "B")) {
+			for (int number = 1; number <= 4; number++) {
+				Seat seat = new Seat();
+				seat.setId(id++);
+				seat.setRow(row);
+				seat.setSeatNumber(number);
+				seat.setOccupied(number == 2 || number == 3);
+				seat.setFeatures(number == 1 ? Set.of(SeatFeature.WINDOW_SEAT) : Set.of());
+				seats.add(seat);
+			}
+		}
+		flightRepository = mock(FlightRepository.class);
+		when(flightRepository.findSeatsByFlightIds(any())).thenAnswer(invocation -> {
+			if (loadGate != null) {
+				loadGate.await();
+			}
+			return ((Collection<Long>) invocation.getArgument(0)).stream()
+					.flatMap(flightId -> seats.stream().map(seat -> new Object[] { flightId, null, seat }))
+					.toList();
+		});
+
+		registry = new SimpleMeterRegistry();
+		seatMapCache = new SeatMapCache(flightRepository, mock(PlatformTransactionManager.class), 10);
+		seatService = new SeatServiceImpl(seatMapCache, new RecommendationCache(registry, 100, Duration.ofMinutes(1)),
+				new SeatRecommendationMetrics(registry), 1, 1);
+	}
+
+	@Test
+	void recordsStagesPerGroupSizeAndFeatures() {
+		seatService.getSeatRecommendations(1L, 1, List.of(SeatFeature.WINDOW_SEAT));
+		seatService.getSeatRecommendations(1L, 2, null);
+		seatService.getSeatRecommendations(1L, 5, null);
+
+		assertThat(timerCount("seat-map-load", "1", "WINDOW_SEAT")).isEqualTo(1);
+		assertThat(timerCount("seat-map", "2", "none")).isEqualTo(1);
+		assertThat(timerCount("contiguous", "1", "WINDOW_SEAT")).isEqualTo(1);
+		assertThat(timerCount("mixed", "1", "WINDOW_SEAT")).isZero();
+
+		// No two free seats are adjacent, so a pair needs the mixed finder.
+		assertThat(registry.get("seat.recommendation.mixed.fallbacks").tags("groupSize", "2").counter().count())
+				.isEqualTo(1);
+		assertThat(registry.get("seat.recommendation.candidates").tags("groupSize", "1", "finder", "contiguous")
+				.counter().count()).isEqualTo(4);
+		// Pairs spanning row A, column 1 or column 4; row B spreads further than the column pairs found before it.
+		assertThat(registry.get("seat.recommendation.candidates").tags("groupSize", "2", "finder", "mixed")
+				.counter().count()).isEqualTo(3);
+
+		// Only four seats are free.
+		assertThat(registry.get("seat.recommendation.empty").tags("groupSize", "5").counter().count())
+				.isEqualTo(1);
+		assertThat(registry.get("seat.recommendation.cabin.occupancy").tags("groupSize", "5").summary().mean())
+				.isEqualTo(0.5);
+	}
+
+	@Test
+	void cachesResultsUntilOccupancyChanges() {
+		List<Seat> first = seatService.getSeatRecommendations(1L, 1, List.of(SeatFeature.WINDOW_SEAT));
+		// Same request shape: feature order and duplicates do not matter.
+		List<Seat> second = seatService.getSeatRecommendations(1L, 1,
+				List.of(SeatFeature.WINDOW_SEAT, SeatFeature.WINDOW_SEAT));
+		assertThat(second).isSameAs(first);
+		assertThat(cacheGets("hit")).isEqualTo(1);
+		assertThat(timerCount("contiguous", "1", "WINDOW_SEAT")).isEqualTo(1);
+
+		// Booking the recommended seat gives the flight a new version.
+		seatMapCache.updateOccupancy(1L, List.of(first.get(0).getId()), true);
+		List<Seat> third = seatService.getSeatRecommendations(1L, 1, List.of(SeatFeature.WINDOW_SEAT));
+		assertThat(third.get(0).getId()).isNotEqualTo(first.get(0).getId());
+		assertThat(cacheGets("miss")).isEqualTo(2);
+	}
+
+	@Test
+	void recommendsSeatsWithCurrentOccupancy() {
+		// Seats A2 and A3 were loaded as occupied and are freed afterwards.
+		seatService.getSeatRecommendations(1L, 1, null);
+		seatMapCache.updateOccupancy(1L, List.of(2L, 3L), false);
+
+		List<Seat> row = seatService.getSeatRecommendations(1L, 4, null);
+
+		assertThat(row).extracting(Seat::getId).containsExactly(1L, 2L, 3L, 4L);
+		assertThat(row).noneMatch(Seat::isOccupied);
+	}
+
+	@Test
+	void coalescesIdenticalRequestsAndShedsOthers() throws Exception {
+		loadGate = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(3);
+		try {
+			List<Future<List<Seat>>> requests = new ArrayList<>();
+			for (int i = 0; i < 3; i++) {
+				requests.add(executor.submit(() -> seatService.getSeatRecommendations(1L, 1,
+						List.of(SeatFeature.WINDOW_SEAT))));
+			}
+			// One request loads the seat map, the other two wait for it.
+			while (admissions("coalesced") < 2) {
+				Thread.sleep(1);
+			}
+
+			// A different request for the same flight is over the limit of one.
+			assertThatThrownBy(() -> seatService.getSeatRecommendations(1L, 2, null))
+					.isInstanceOf(SeatRecommendationLimitException.class);
+			assertThat(admissions("rejected")).isEqualTo(1);
+
+			loadGate.countDown();
+			List<Seat> result = requests.get(0).get(10, TimeUnit.SECONDS);
+			assertThat(result).isNotEmpty();
+			for (Future<List<Seat>> request : requests) {
+				assertThat(request.get(10, TimeUnit.SECONDS)).isSameAs(result);
+			}
+			assertThat(admissions("computed")).isEqualTo(1);
+			verify(flightRepository, times(1)).findSeatsByFlightIds(any());
+
+			// The flight is admitted again once nothing is in progress.
+			assertThat(seatService.getSeatRecommendations(1L, 2, null)).hasSize(2);
+		} finally {
+			loadGate.countDown();
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void allocatesLargestPartiesFirstWithoutOverlap() {
+		List<List<Seat>> allocations = seatService.allocateParties(1L, List.of(
+				new Party(1, List.of(SeatFeature.WINDOW_SEAT)),
+				new Party(2, null),
+				new Party(2, null),
+				new Party(1, null)));
+
+		// The two pairs take all four free seats; the singles come too late.
+		assertThat(allocations).extracting(List::size).containsExactly(0, 2, 2, 0);
+		assertThat(allocations.stream().flatMap(List::stream).map(Seat::getId))
+				.containsExactlyInAnyOrder(1L, 4L, 5L, 8L);
+		// The cached seat map is not changed.
+		assertThat(seatService.getSeatRecommendations(1L, 1, null)).isNotEmpty();
+	}
+
+	private double admissions(String admission) {
+		return registry.find("seat.recommendation.requests").tags("admission", admission).counters().stream()
+				.mapToDouble(Counter::count).sum();
+	}
+
+	private double cacheGets(String result) {
+		return registry.get("cache.gets").tags("cache", "seat-recommendations", "result", result)
+				.functionCounter().count();
+	}
+
+	private long timerCount(String stage, String groupSize, String features) {
+		Collection<Timer> timers = registry.find("seat.recommendation.stage")
+				.tags("stage", stage, "groupSize", groupSize, "features", features).timers();
+		return timers.stream().mapToLong(Timer::count).sum();
+	}
+}
@@ -0,0 +1,300 @@
+package FlightFinder.Backend.service.seatFinder;
+
+import FlightFinder.Backend.model.AircraftType;
+import FlightFinder.Backend.model.CabinLayout;
+import FlightFinder.Backend.model.Seat;
+import FlightFinder.Backend.model.SeatFeature;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.ToIntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BitsetSeatFinderTests {
+
+	private static final String ROWS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+
+	@Test
+	void matchesListBasedContiguousFinder() {
+		Random random = new Random(42);
+		for (int cabin = 0; cabin < 500; cabin++) {
+			int numRows = 1 + random.nextInt(ROWS.length());
+			int seatsPerRow = 1 + random.nextInt(10);
+			double occupancy = random.nextDouble();
+			List<Seat> seats = generateSeats(random, numRows, seatsPerRow, occupancy);
+			List<Seat> availableSeats = seats.stream().filter(seat -> !seat.isOccupied()).toList();
+			SeatMap seatMap = SeatMap.compile(seats);
+
+			for (int numSeats = 1; numSeats <= 9; numSeats++) {
+				List<SeatFeature> features = randomFeatures(random);
+
+				assertEquals(
+						seatIds(ContiguousSeatFinder.findBestContiguousSeatGroup(availableSeats, numSeats, features)),
+						seatIds(BitsetSeatFinder.findBestContiguousSeatGroup(seatMap, numSeats, features)));
+			}
+		}
+	}
+
+	@Test
+	void topGroupsMatchFullRanking() {
+		Random random = new Random(7);
+		for (int cabin = 0; cabin < 200; cabin++) {
+			List<Seat> seats = generateSeats(random, 1 + random.nextInt(ROWS.length()), 1 + random.nextInt(10),
+					random.nextDouble());
+			List<Seat> availableSeats = seats.stream()
+					.filter(seat -> !seat.isOccupied())
+					.sorted(Comparator.comparing(Seat::getRow).thenComparingInt(Seat::getSeatNumber))
+					.toList();
+			SeatMap seatMap = SeatMap.compile(seats);
+
+			for (int numSeats = 1; numSeats <= 5; numSeats++) {
+				List<SeatFeature> features = randomFeatures(random);
+				int k = 1 + random.nextInt(6);
+
+				List<List<Seat>> contiguous = new ArrayList<>();
+				for (int i = 0; i + numSeats <= availableSeats.size(); i++) {
+					List<Seat> window = availableSeats.subList(i, i + numSeats);
+					Seat first = window.get(0);
+					Seat last = window.get(numSeats - 1);
+					if (first.getRow().equals(last.getRow())
+							&& last.getSeatNumber() - first.getSeatNumber() == numSeats - 1) {
+						contiguous.add(window);
+					}
+				}
+				// Stable sorts, so equally ranked groups stay in row/seat order.
+				contiguous.sort(SeatFinderUtils.createGroupComparator(features));
+
+				assertEquals(groupIds(contiguous.subList(0, Math.min(k, contiguous.size()))),
+						groupIds(BitsetSeatFinder.findTopContiguousSeatGroups(seatMap, numSeats, features, k)));
+				assertMixedGroupsOptimal(availableSeats, seatMap, numSeats, features, k,
+						seat -> seat.getRow().charAt(0), Seat::getSeatNumber, seat -> 0);
+			}
+		}
+	}
+
+	@Test
+	void findsMixedGroupsStackedAcrossRows() {
+		// Row A: seats 1, 2 and 4 free; row B: seats 1 and 2 free.
+		List<Seat> seats = generateSeats(new Random(1), 2, 4, 0);
+		seats.forEach(seat -> seat.setOccupied(seat.getSeatNumber() == 3
+				|| (seat.getRow().equals("B") && seat.getSeatNumber() == 4)));
+		SeatMap seatMap = SeatMap.compile(seats);
+
+		List<Seat> group = BitsetSeatFinder.findBestMixedSeatGroup(seatMap, 4, List.of());
+
+		assertEquals(List.of("A1", "A2", "B1", "B2"),
+				group.stream().map(seat -> seat.getRow() + seat.getSeatNumber()).toList());
+	}
+
+	@Test
+	void parallelMixedSearchMatchesSequential() {
+		Random random = new Random(3);
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			for (int cabin = 0; cabin < 10; cabin++) {
+				// Large enough to be searched in parallel.
+				int numRows = 150 + random.nextInt(100);
+				int seatsPerRow = 10 + random.nextInt(10);
+				double occupancy = random.nextDouble() * 0.9;
+				List<Seat> seats = new ArrayList<>();
+				for (int row = 1; row <= numRows; row++) {
+					for (int number = 1; number <= seatsPerRow; number++) {
+						Seat seat = new Seat();
+						seat.setId((long) seats.size() + 1);
+						seat.setRow(String.valueOf(row));
+						seat.setSeatNumber(number);
+						seat.setOccupied(random.nextDouble() < occupancy);
+						seat.setFeatures(new HashSet<>(randomFeatures(random)));
+						seats.add(seat);
+					}
+				}
+				SeatMap seatMap = SeatMap.compile(seats);
+
+				for (int numSeats : new int[] { 1, 4, 20, 50 }) {
+					List<SeatFeature> features = randomFeatures(random);
+					int k = 1 + random.nextInt(5);
+					assertEquals(groupIds(BitsetSeatFinder.findTopMixedSeatGroups(seatMap, numSeats, features, k)),
+							groupIds(BitsetSeatFinder.findTopMixedSeatGroups(seatMap, numSeats, features, k, pool)));
+				}
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	@Test
+	void respectsAislesAndCabinClassesOfLayout() {
+		CabinLayout layout = AircraftType.B777.getLayout();
+		Random random = new Random(11);
+		for (int cabin = 0; cabin < 50; cabin++) {
+			List<Seat> seats = new ArrayList<>();
+			long id = 1;
+			for (int row = layout.getFirstRow(); row <= layout.getLastRow(); row++) {
+				for (int number = 1; number <= layout.getColumnCount(); number++) {
+					Seat seat = new Seat();
+					seat.setId(id++);
+					seat.setRow(String.valueOf(row));
+					seat.setSeatNumber(number);
+					seat.setOccupied(random.nextDouble() < 0.9);
+					seat.setFeatures(layout.featuresOf(row, number));
+					seats.add(seat);
+				}
+			}
+			Collections.shuffle(seats, random);
+			SeatMap seatMap = SeatMap.compile(seats, layout, 0);
+			// Rows in row number order, not in label order ("10" before "2").
+			assertEquals("10", SeatMap.compile(seats).getRowLabel(9));
+			// Seats are labelled with the layout's column letters, which skip I.
+			assertEquals(layout.getFirstRow() + "K", seatMap.getSeats(List.of(10L)).get(0).getLabel());
+
+			List<Seat> availableSeats = seats.stream()
+					.filter(seat -> !seat.isOccupied())
+					.sorted(Comparator.comparingInt((Seat seat) -> Integer.parseInt(seat.getRow()))
+							.thenComparingInt(Seat::getSeatNumber))
+					.toList();
+			for (int numSeats = 1; numSeats <= 5; numSeats++) {
+				List<SeatFeature> features = randomFeatures(random);
+
+				List<List<Seat>> contiguous = new ArrayList<>();
+				for (int i = 0; i + numSeats <= availableSeats.size(); i++) {
+					List<Seat> window = availableSeats.subList(i, i + numSeats);
+					Seat first = window.get(0);
+					Seat last = window.get(numSeats - 1);
+					if (first.getRow().equals(last.getRow())
+							&& last.getSeatNumber() - first.getSeatNumber() == numSeats - 1
+							&& layout.getPosition(last.getSeatNumber() - 1)
+									- layout.getPosition(first.getSeatNumber() - 1) == numSeats - 1) {
+						contiguous.add(window);
+					}
+				}
+				contiguous.sort(SeatFinderUtils.createGroupComparator(features));
+
+				long[] candidates = new long[1];
+				assertEquals(groupIds(contiguous.subList(0, Math.min(3, contiguous.size()))),
+						groupIds(BitsetSeatFinder.findTopContiguousSeatGroups(seatMap, numSeats, features, 3,
+								count -> candidates[0] = count)));
+				assertEquals(contiguous.size(), candidates[0]);
+				assertMixedGroupsOptimal(availableSeats, seatMap, numSeats, features, 3,
+						seat -> Integer.parseInt(seat.getRow()),
+						seat -> layout.getPosition(seat.getSeatNumber() - 1),
+						seat -> layout.getCabinClass(Integer.parseInt(seat.getRow())).ordinal());
+			}
+		}
+	}
+
+	/**
+	 * Checks the top mixed groups against every rectangle of rows and positions
+	 * that groups of free seats can exactly span, ranked by spread and best
+	 * feature score of its seats.
+	 */
+	private static void assertMixedGroupsOptimal(List<Seat> availableSeats, SeatMap seatMap, int numSeats,
+			List<SeatFeature> features, int k, ToIntFunction<Seat> row, ToIntFunction<Seat> position,
+			ToIntFunction<Seat> cabin) {
+		int desiredMask = SeatFeature.toMask(features);
+		int[] seatRows = availableSeats.stream().mapToInt(row).toArray();
+		int[] seatPositions = availableSeats.stream().mapToInt(position).toArray();
+		int[] seatCabins = availableSeats.stream().mapToInt(cabin).toArray();
+		Integer[] seatScores = availableSeats.stream()
+				.map(seat -> Integer.bitCount(SeatFeature.toMask(seat.getFeatures()) & desiredMask))
+				.toArray(Integer[]::new);
+		int[] rows = Arrays.stream(seatRows).distinct().sorted().toArray();
+		int[] positions = Arrays.stream(seatPositions).distinct().sorted().toArray();
+		List<int[]> expected = new ArrayList<>();
+		for (int top : rows) {
+			for (int bottom : rows) {
+				for (int l = 0; l < positions.length && bottom >= top; l++) {
+					// Widen the rectangle to the right one position at a time. Counts of seats inside,
+					// and inside without the top row, bottom row, left column and right column.
+					int inside = 0;
+					int belowTop = 0;
+					int aboveBottom = 0;
+					int rightOfLeft = 0;
+					Set<Integer> cabins = new HashSet<>();
+					List<Integer> scores = new ArrayList<>();
+					for (int r = l; r < positions.length; r++) {
+						int leftOfRight = inside;
+						for (int i = 0; i < seatRows.length; i++) {
+							if (seatPositions[i] != positions[r] || seatRows[i] < top || seatRows[i] > bottom) {
+								continue;
+							}
+							inside++;
+							belowTop += seatRows[i] > top ? 1 : 0;
+							aboveBottom += seatRows[i] < bottom ? 1 : 0;
+							rightOfLeft += r > l ? 1 : 0;
+							cabins.add(seatCabins[i]);
+							scores.add(seatScores[i]);
+						}
+						if (inside < numSeats || cabins.size() > 1 || belowTop >= numSeats
+								|| aboveBottom >= numSeats || rightOfLeft >= numSeats || leftOfRight >= numSeats) {
+							continue;
+						}
+						int score = scores.stream().sorted(Comparator.reverseOrder()).limit(numSeats)
+								.mapToInt(Integer::intValue).sum();
+						expected.add(new int[] { bottom - top + positions[r] - positions[l], score });
+					}
+				}
+			}
+		}
+		expected.sort(Comparator.comparingInt((int[] rank) -> rank[0]).thenComparingInt(rank -> -rank[1]));
+
+		List<List<Integer>> actual = new ArrayList<>();
+		for (List<Seat> group : BitsetSeatFinder.findTopMixedSeatGroups(seatMap, numSeats, features, k)) {
+			assertEquals(numSeats, new HashSet<>(group).size());
+			assertEquals(1, group.stream().mapToInt(cabin).distinct().count());
+			IntSummaryStatistics groupRows = group.stream().mapToInt(row).summaryStatistics();
+			IntSummaryStatistics groupPositions = group.stream().mapToInt(position).summaryStatistics();
+			actual.add(List.of(groupRows.getMax() - groupRows.getMin() + groupPositions.getMax()
+					- groupPositions.getMin(), group.stream()
+							.mapToInt(seat -> Integer.bitCount(SeatFeature.toMask(seat.getFeatures()) & desiredMask))
+							.sum()));
+		}
+		assertEquals(expected.stream().limit(k).map(rank -> List.of(rank[0], rank[1])).toList(), actual);
+
+		// Without enough groups to fill the top k, no rectangle is skipped and every one is evaluated.
+		long[] candidates = new long[2];
+		BitsetSeatFinder.findTopMixedSeatGroups(seatMap, numSeats, features, expected.size() + 1, null,
+				count -> candidates[0] = count);
+		assertEquals(expected.size(), candidates[0]);
+		BitsetSeatFinder.findTopMixedSeatGroups(seatMap, numSeats, features, k, null, count -> candidates[1] = count);
+		assertTrue(candidates[1] >= Math.min(k, expected.size()) && candidates[1] <= expected.size());
+	}
+
+	private static List<Long> seatIds(List<Seat> group) {
+		return group.stream().map(Seat::getId).toList();
+	}
+
+	private static List<List<Long>> groupIds(List<List<Seat>> groups) {
+		return groups.stream().map(BitsetSeatFinderTests::seatIds).toList();
+	}
+
+	private static List<Seat> generateSeats(Random random, int numRows, int seatsPerRow, double occupancy) {
+		List<Seat> seats = new ArrayList<>();
+		long id = 1;
+		for (int row = 0; row < numRows; row++) {
+			for (int number = 1; number <= seatsPerRow; number++) {
+				Seat seat = new Seat();
+				seat.setId(id++);
+				seat.setRow(String.valueOf(ROWS.charAt(row)));
+				seat.setSeatNumber(number);
+				seat.setOccupied(random.nextDouble() < occupancy);
+				seat.setFeatures(new HashSet<>(randomFeatures(random)));
+				seats.add(seat);
+			}
+		}
+		Collections.shuffle(seats, random);
+		return seats;
+	}
+
+	private static List<SeatFeature> randomFeatures(Random random) {
+		List<SeatFeature> features = new ArrayList<>();
+		for (SeatFeature feature : SeatFeature.values()) {
+			if (random.nextBoolean()) {
+				features.add(feature);
+			}
+		}
+		return features;
+	}
+}
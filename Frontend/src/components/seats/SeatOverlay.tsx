@@ -108,7 +108,7 @@ export default function SeatOverlay({ flight, show, onHide }: SeatOverlayProps)
                   >
                     <div className="card-body py-2">
                       <div className="d-flex justify-content-between align-items-center">
-                        <span className="fw-medium">{seat.row}{seat.seatNumber.toString().padStart(2, '0')}</span>
+                        <span className="fw-medium">{seat.label ?? `${seat.row}${seat.seatNumber.toString().padStart(2, '0')}`}</span>
                         <div className="d-flex gap-1">
                           {seat.features.map(feature => (
                             <Badge key={feature} bg="light" text="dark" title={feature.replace('_', ' ')}>
@@ -6,6 +6,8 @@ export interface Seat {
   id: number;
   row: string;
   seatNumber: number;
+  // Display label from the cabin layout, e.g. "12H"
+  label?: string | null;
   isOccupied: boolean;
   features: SeatFeature[];
 }